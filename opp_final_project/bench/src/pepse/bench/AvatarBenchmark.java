@@ -0,0 +1,65 @@
+package pepse.bench;
+
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.*;
+import pepse.util.AssetCache;
+import pepse.world.Avatar;
+
+import java.awt.event.KeyEvent;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One frame of the avatar in steady state: walking, flying, standing and jumping by a fixed key script.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvatarBenchmark {
+    private static final float DELTA_TIME = 1 / 60f;
+    private static final int AVATAR_LAYER = 0;
+    private static final int[] RIGHT = {KeyEvent.VK_RIGHT};
+    private static final int[] FLY_RIGHT = {KeyEvent.VK_RIGHT, KeyEvent.VK_SPACE, KeyEvent.VK_SHIFT};
+    private static final int[] NOTHING = {};
+    private static final int[] LEFT = {KeyEvent.VK_LEFT};
+    private static final int[] JUMP = {KeyEvent.VK_SPACE};
+
+    private ScriptedInput input;
+    private Avatar avatar;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = new ScriptedInput(script(RIGHT, 60, FLY_RIGHT, 30, NOTHING, 30, LEFT, 60, JUMP, 10));
+        AssetCache assets = new AssetCache(new StubWindowController(WorldGenerationBenchmark.WINDOW_DIMENSIONS));
+        assets.preload(Avatar.SPRITE_PATHS);
+        avatar = Avatar.create(new StubGameObjectCollection(), AVATAR_LAYER, Vector2.ZERO, input, assets);
+    }
+
+    @Benchmark
+    public void update() {
+        avatar.update(DELTA_TIME);
+        input.nextFrame();
+    }
+
+    /**
+     * @param steps - pairs of the keys to press and the number of frames to press them
+     * @return the keys pressed in every frame
+     */
+    private static int[][] script(Object... steps) {
+        int frames = 0;
+        for (int i = 1; i < steps.length; i += 2) {
+            frames += (int) steps[i];
+        }
+        int[][] script = new int[frames][];
+        int frame = 0;
+        for (int i = 0; i < steps.length; i += 2) {
+            int length = (int) steps[i + 1];
+            Arrays.fill(script, frame, frame + length, (int[]) steps[i]);
+            frame += length;
+        }
+        return script;
+    }
+}
@@ -0,0 +1,24 @@
+package pepse.bench;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the pepse benchmarks. The sprites are read from the working directory or from the classpath.
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Runs all the benchmarks, or only the ones whose name matches the first argument.
+     * @param args - optional regular expression of the benchmarks to run
+     * @throws RunnerException if a benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName())
+                .build();
+        new Runner(options).run();
+    }
+}
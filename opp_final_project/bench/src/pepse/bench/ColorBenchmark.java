@@ -0,0 +1,40 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.*;
+import pepse.util.ColorPalette;
+import pepse.util.ColorSupplier;
+
+import java.awt.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picking the color of one block: a new random color against a color of the shared palette.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColorBenchmark {
+    private static final Color BASE_COLOR = new Color(212, 123, 74);
+
+    private final Random random = new Random();
+    private ColorPalette palette;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        palette = ColorSupplier.palette(BASE_COLOR);
+    }
+
+    @Benchmark
+    public Color approximateColor() {
+        return ColorSupplier.approximateColor(BASE_COLOR);
+    }
+
+    @Benchmark
+    public Color paletteRandomColor() {
+        return palette.randomColor(random);
+    }
+}
@@ -0,0 +1,80 @@
+package pepse.bench;
+
+import danogl.GameObject;
+import org.openjdk.jmh.annotations.*;
+import pepse.util.TimingWheel;
+import pepse.world.Terrain;
+import pepse.world.TerrainRenderMode;
+import pepse.world.chunks.Chunk;
+import pepse.world.chunks.ChunkGenerator;
+import pepse.world.trees.Leaf;
+import pepse.world.trees.LeafSystem;
+import pepse.world.trees.Tree;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Removing everything that was created for one chunk, the work done for the far side of the world when the
+ * avatar walks into a new chunk. This is what the game manager's removeBesidesRange did before the world
+ * was streamed in chunks, and what PepseGameManager.onEvict does now.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EvictionBenchmark {
+    private static final float TIMER_TICK = 1 / 30f;
+    private static final int TIMER_WHEEL_BITS = 8;
+
+    @Param({"600"})
+    private int width;
+
+    private StubGameObjectCollection gameObjects;
+    private Terrain terrain;
+    private LeafSystem leafSystem;
+    private ChunkGenerator generator;
+    private Chunk chunk;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameObjects = new StubGameObjectCollection();
+        terrain = new Terrain(gameObjects, WorldGenerationBenchmark.GROUND_LAYER,
+                WorldGenerationBenchmark.WINDOW_DIMENSIONS, WorldGenerationBenchmark.SEED,
+                TerrainRenderMode.BAKED);
+        leafSystem = new LeafSystem(gameObjects, WorldGenerationBenchmark.LEAVES_LAYER,
+                new TimingWheel(TIMER_TICK, TIMER_WHEEL_BITS));
+        Tree tree = new Tree(gameObjects, terrain::groundHeightAt, WorldGenerationBenchmark.TREE_LAYER,
+                leafSystem, WorldGenerationBenchmark.SEED);
+        generator = new ChunkGenerator(terrain, tree, 1);
+    }
+
+    /**
+     * Creates the chunk to evict, with the same content every time.
+     */
+    @Setup(Level.Invocation)
+    public void generateChunk() {
+        leafSystem.update(0); //free the slots of the leaves evicted last time
+        chunk = new Chunk(0, width);
+        generator.generate(chunk);
+    }
+
+    @Benchmark
+    public void evictChunk() {
+        chunk.releaseObjects(this::removeObject);
+        terrain.flushReleasedImages(); //the stub collection removes objects right away
+    }
+
+    /**
+     * Same as PepseGameManager.removeObject.
+     */
+    private void removeObject(GameObject object, int layer) {
+        if (layer == WorldGenerationBenchmark.LEAVES_LAYER) {
+            leafSystem.remove((Leaf) object);
+        } else {
+            gameObjects.removeGameObject(object, layer);
+            terrain.release(object);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package pepse.bench;
+
+import danogl.GameManager;
+import danogl.collisions.GameObjectCollection;
+import danogl.gui.ImageReader;
+import danogl.gui.SoundReader;
+import danogl.gui.UserInputListener;
+import danogl.gui.WindowController;
+import pepse.PepseGameManager;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+
+/**
+ * The game, without a window. danogl's own initialization registers mouse listeners on the window, so it is
+ * replaced by creating the collection of the game objects and the mouse notifier directly. Everything else,
+ * including the updates and the rendering, is the game's own code.
+ */
+public class HeadlessGameManager extends PepseGameManager {
+    private static final String MOUSE_NOTIFIER_CLASS = "danogl.NotifyOfMouseActions";
+    private static final String MOUSE_NOTIFIER_FIELD = "mouseActionNotifier";
+
+    @Override
+    protected void initializeEngine(ImageReader imageReader, SoundReader soundReader,
+                                    UserInputListener inputListener, WindowController windowController) {
+        setGameObjectsCollection(new GameObjectCollection());
+        //setCamera updates the mouse notifier, which danogl only creates together with the window listeners
+        try {
+            Constructor<?> notifier = Class.forName(MOUSE_NOTIFIER_CLASS)
+                    .getConstructor(GameManager.class, UserInputListener.class);
+            notifier.setAccessible(true);
+            Field field = GameManager.class.getDeclaredField(MOUSE_NOTIFIER_FIELD);
+            field.setAccessible(true);
+            field.set(this, notifier.newInstance(this, inputListener));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("unsupported danogl version", e);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package pepse.bench;
+
+import danogl.gui.ImageReader;
+import danogl.gui.SoundReader;
+import danogl.util.Vector2;
+import pepse.metrics.FrameMetrics;
+import pepse.util.EnergyCounter;
+import pepse.world.Avatar;
+import pepse.world.Block;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Runs the game without a window, for load tests on machines with no display. The avatar follows a
+ * scripted path: it walks right for a given distance, flies for a while and walks back to where it started.
+ * Whenever a trunk or a step of the ground stops it, it stands still until its energy is full, then flies
+ * until it gets past, standing still again whenever its energy runs out. A run where the avatar makes no
+ * progress along its path for stallFrames frames is stopped with an error, after the report.
+ * Every frame is simulated with the same time step, and the wall time of its update and rendering (into an
+ * image in memory) is measured. At the end the distribution of the frame times and the number of objects in
+ * every layer are printed.
+ * Arguments, all optional, as name=value: distance (pixels, default 1000000), fly (frames, default 120),
+ * maxFrames (default unlimited), render (true or false, default true when there is a display, since danogl's
+ * text needs the screen resolution), reportEvery (frames, default 10000), stallFrames (default 3000).
+ */
+public class HeadlessRunner {
+    private static final Vector2 WINDOW_DIMENSIONS = Vector2.of(1280, 720);
+    private static final float DELTA_TIME = 1 / 60f;
+    private static final int[][] WALK_RIGHT = {{KeyEvent.VK_RIGHT}};
+    private static final int[][] FLY = {{KeyEvent.VK_SPACE, KeyEvent.VK_SHIFT}};
+    private static final int[][] WALK_LEFT = {{KeyEvent.VK_LEFT}};
+    private static final int[][] FLY_RIGHT = {{KeyEvent.VK_RIGHT, KeyEvent.VK_SPACE, KeyEvent.VK_SHIFT}};
+    private static final int[][] FLY_LEFT = {{KeyEvent.VK_LEFT, KeyEvent.VK_SPACE, KeyEvent.VK_SHIFT}};
+    private static final int[][] NO_KEYS = {{}};
+    private static final float ENERGY_PER_FRAME = 0.5f; //gained on the ground, spent flying
+    //enough frames to fill the energy from empty, or to spend all of it
+    private static final int RECHARGE_FRAMES = (int) (EnergyCounter.MAX_ENERGY_VALUE / ENERGY_PER_FRAME) + 10;
+    //how far the avatar's center goes past where it stopped before it is clear of a trunk: its own width
+    //to get its back edge past the trunk's front, and the trunk's width
+    private static final float CLEARANCE = Avatar.AVATAR_SIZE + Block.SIZE;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p99.9"};
+    private static final int WORST_FRAMES = 5;
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private enum Phase { WALK_RIGHT, FLY, WALK_LEFT, DONE }
+
+    /** How the avatar gets past what stopped it while walking. */
+    private enum Climb { WALKING, RECHARGING, FLYING }
+
+    private final float distance;
+    private final int flyFrames;
+    private final long maxFrames;
+    private final boolean render;
+    private final int reportEvery;
+    private final int stallFrames;
+    private final ScriptedInput input = new ScriptedInput(WALK_RIGHT);
+    private final HeadlessGameManager game = new HeadlessGameManager();
+    private Phase phase = Phase.WALK_RIGHT;
+    private int phaseFrames = 0;
+    private Climb climb = Climb.WALKING;
+    private int climbFrames = 0;
+    private float stuckX;
+    private float startX;
+    private float lastX;
+    private float bestProgress = 0;
+    private int framesWithoutProgress = 0;
+
+    /**
+     * constructor
+     * @param distance - how far the avatar walks right before turning back, in pixels
+     * @param flyFrames - number of frames the avatar flies before turning back
+     * @param maxFrames - the run stops after this many frames even if the path is not over
+     * @param render - whether every frame is also rendered
+     * @param reportEvery - number of frames between two progress lines
+     * @param stallFrames - the run fails after this many frames without progress along the path
+     */
+    public HeadlessRunner(float distance, int flyFrames, long maxFrames, boolean render, int reportEvery,
+                          int stallFrames) {
+        this.distance = distance;
+        this.flyFrames = flyFrames;
+        this.maxFrames = maxFrames;
+        this.render = render;
+        this.reportEvery = reportEvery;
+        this.stallFrames = stallFrames;
+    }
+
+    /**
+     * Runs the game until the avatar finishes its path, and prints the report.
+     * @throws IllegalStateException if the avatar stalled, after the report of the frames until then
+     */
+    public void run() {
+        StubWindowController window = new StubWindowController(WINDOW_DIMENSIONS);
+        long initStart = System.nanoTime();
+        game.initializeGame(new ImageReader(window), new SoundReader(window), input, window);
+        System.out.printf("initializeGame: %.1f ms%n", (System.nanoTime() - initStart) / NANOS_PER_MILLI);
+        startX = avatarX();
+        lastX = startX;
+
+        BufferedImage frame = new BufferedImage((int) WINDOW_DIMENSIONS.x(), (int) WINDOW_DIMENSIONS.y(),
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = frame.createGraphics();
+        long[] frameTimes = new long[1024];
+        int frames = 0;
+        while (phase != Phase.DONE && frames < maxFrames && framesWithoutProgress < stallFrames) {
+            long start = System.nanoTime();
+            game.update(DELTA_TIME);
+            if (render) game.render(g);
+            long time = System.nanoTime() - start;
+
+            if (frames == frameTimes.length) frameTimes = Arrays.copyOf(frameTimes, frames * 2);
+            frameTimes[frames++] = time;
+            if (frames == 1) {
+                System.out.printf("time to first frame: %.1f ms (%s)%n", (System.nanoTime() - initStart) /
+                        NANOS_PER_MILLI, render ? "rendered" : "updated, not rendered");
+            }
+            input.nextFrame();
+            advancePhase();
+            if (frames % reportEvery == 0) {
+                System.out.printf("frame %d, %s, x=%.0f, objects by layer %s%n", frames, phase, avatarX(),
+                        game.countObjectsPerLayer());
+            }
+        }
+        g.dispose();
+        report(Arrays.copyOf(frameTimes, frames));
+        if (framesWithoutProgress >= stallFrames) {
+            throw new IllegalStateException(String.format("the avatar stalled at x=%.0f in %s for %d frames",
+                    avatarX(), phase, framesWithoutProgress));
+        }
+    }
+
+    /**
+     * Moves the avatar along its path, according to where it is.
+     */
+    private void advancePhase() {
+        phaseFrames++;
+        float x = avatarX();
+        switch (phase) {
+            case WALK_RIGHT:
+                if (x - startX >= distance) {
+                    enter(Phase.FLY, FLY);
+                } else {
+                    walk(x, 1, WALK_RIGHT, FLY_RIGHT);
+                }
+                break;
+            case FLY:
+                if (phaseFrames >= flyFrames) enter(Phase.WALK_LEFT, WALK_LEFT);
+                break;
+            case WALK_LEFT:
+                if (x <= startX) {
+                    enter(Phase.DONE, WALK_LEFT);
+                } else {
+                    walk(x, -1, WALK_LEFT, FLY_LEFT);
+                }
+                break;
+            default:
+        }
+        lastX = x;
+    }
+
+    /**
+     * Moves the avatar one frame along a walking phase, getting past what stops it, and counts the frames
+     * since it last got further along the phase than ever before.
+     * @param x - current x coordinate of the avatar
+     * @param direction - 1 when walking right, -1 when walking left
+     * @param walkKeys - the keys that walk in the direction
+     * @param flyKeys - the keys that fly in the direction
+     */
+    private void walk(float x, int direction, int[][] walkKeys, int[][] flyKeys) {
+        float progress = (x - startX) * direction;
+        if (phaseFrames == 1 || progress > bestProgress) {
+            bestProgress = progress;
+            framesWithoutProgress = 0;
+        } else {
+            framesWithoutProgress++;
+        }
+        switch (climb) {
+            case WALKING:
+                climbFrames++;
+                if (climbFrames > 1 && x == lastX) { //the keys of the phase had a frame to move it
+                    //flying needs energy, and it only builds up while the avatar stands on the ground
+                    stuckX = x;
+                    climbTo(Climb.RECHARGING, NO_KEYS);
+                } else {
+                    input.setScript(walkKeys);
+                }
+                break;
+            case RECHARGING:
+                if (avatarOnGround()) climbFrames++; //the energy does not build up in the air
+                if (climbFrames >= RECHARGE_FRAMES) climbTo(Climb.FLYING, flyKeys);
+                break;
+            case FLYING:
+                climbFrames++;
+                if ((x - stuckX) * direction >= CLEARANCE) {
+                    //clear of what stopped it, even if it was a trunk, and the flight ends over its far side
+                    climbTo(Climb.WALKING, walkKeys);
+                } else if (climbFrames >= RECHARGE_FRAMES) {
+                    climbTo(Climb.RECHARGING, NO_KEYS); //out of energy, try again from the ground
+                }
+                break;
+            default:
+        }
+    }
+
+    /**
+     * Changes the way the avatar gets past what stopped it.
+     * @param next - the new way
+     * @param keys - the keys pressed from now on
+     */
+    private void climbTo(Climb next, int[][] keys) {
+        climb = next;
+        climbFrames = 0;
+        input.setScript(keys);
+    }
+
+    /**
+     * Starts a phase of the path.
+     * @param next - the phase
+     * @param keys - the keys pressed during the phase
+     */
+    private void enter(Phase next, int[][] keys) {
+        phase = next;
+        phaseFrames = 0;
+        climb = Climb.WALKING;
+        climbFrames = 0;
+        input.setScript(keys);
+    }
+
+    /**
+     * @return true if the avatar is not moving vertically, so it stands on something
+     */
+    private boolean avatarOnGround() {
+        return game.camera().getObjectFollowed().getVelocity().y() == 0;
+    }
+
+    /**
+     * @return x coordinate of the avatar's center
+     */
+    private float avatarX() {
+        return game.camera().getObjectFollowed().getCenter().x();
+    }
+
+    /**
+     * Prints the distribution of the frame times, the slowest frames, the time of every section of the
+     * game's frames, the objects in every layer and the gauges.
+     * @param frameTimes - wall time of every frame in nanoseconds
+     */
+    private void report(long[] frameTimes) {
+        System.out.printf("frames: %d%n", frameTimes.length);
+        if (frameTimes.length == 0) return;
+        Integer[] slowest = new Integer[frameTimes.length];
+        Arrays.setAll(slowest, i -> i);
+        Arrays.sort(slowest, (a, b) -> Long.compare(frameTimes[b], frameTimes[a]));
+
+        long[] sorted = frameTimes.clone();
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long time : sorted) {
+            total += time;
+        }
+        System.out.printf("frame time (ms): mean %.3f", total / NANOS_PER_MILLI / sorted.length);
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(PERCENTILES[i] / 100 * sorted.length) - 1);
+            System.out.printf(", %s %.3f", PERCENTILE_NAMES[i], sorted[Math.max(0, index)] / NANOS_PER_MILLI);
+        }
+        System.out.printf(", max %.3f%n", sorted[sorted.length - 1] / NANOS_PER_MILLI);
+        System.out.print("slowest frames:");
+        for (int i = 0; i < Math.min(WORST_FRAMES, slowest.length); i++) {
+            System.out.printf(" #%d %.3f ms", slowest[i], frameTimes[slowest[i]] / NANOS_PER_MILLI);
+        }
+        System.out.println();
+        for (FrameMetrics.Section section : game.getMetrics().getSections()) {
+            System.out.printf("section %s (ms): p50 %.3f, p99 %.3f, max %.3f%n", section.getName(),
+                    section.getP50Millis(), section.getP99Millis(), section.getMaxMillis());
+        }
+        for (Map.Entry<String, Integer> layer : game.countObjectsPerLayer().entrySet()) {
+            System.out.printf("objects in %s: %d%n", layer.getKey(), layer.getValue());
+        }
+        game.getMetrics().sampleGauges();
+        for (Map.Entry<String, Double> gauge : game.getMetrics().getGauges().entrySet()) {
+            System.out.printf("gauge %s: %.3f%n", gauge.getKey(), gauge.getValue());
+        }
+    }
+
+    /**
+     * Runs the game headless.
+     * @param args - optional name=value arguments, see the class documentation
+     */
+    public static void main(String[] args) {
+        float distance = 1_000_000;
+        int fly = 120;
+        long maxFrames = Long.MAX_VALUE;
+        boolean render = !GraphicsEnvironment.isHeadless();
+        int reportEvery = 10_000;
+        int stallFrames = 3000;
+        for (String arg : args) {
+            String[] nameValue = arg.split("=", 2);
+            if (nameValue.length != 2) throw new IllegalArgumentException("expected name=value: " + arg);
+            switch (nameValue[0]) {
+                case "distance":
+                    distance = Float.parseFloat(nameValue[1]);
+                    break;
+                case "fly":
+                    fly = Integer.parseInt(nameValue[1]);
+                    break;
+                case "maxFrames":
+                    maxFrames = Long.parseLong(nameValue[1]);
+                    break;
+                case "render":
+                    render = Boolean.parseBoolean(nameValue[1]);
+                    break;
+                case "reportEvery":
+                    reportEvery = Integer.parseInt(nameValue[1]);
+                    break;
+                case "stallFrames":
+                    stallFrames = Integer.parseInt(nameValue[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown argument: " + nameValue[0]);
+            }
+        }
+        new HeadlessRunner(distance, fly, maxFrames, render, reportEvery, stallFrames).run();
+    }
+}
@@ -0,0 +1,81 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import pepse.util.HeightmapCache;
+import pepse.util.Noise;
+import pepse.util.NoiseFunction;
+import pepse.world.Block;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Evaluating the ground noise over one chunk of columns, through every API that exposes it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoiseBenchmark {
+    private static final int PAGE_COLUMNS = 20;
+    private static final int MAX_PAGES = 64;
+
+    @Param({"20"})
+    private int columns;
+
+    private Function<Float, Float> boxed;
+    private NoiseFunction noise;
+    private HeightmapCache cache;
+    private float[] heights;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        float dimY = WorldGenerationBenchmark.WINDOW_DIMENSIONS.y() * 2 / 3;
+        float dimX = WorldGenerationBenchmark.WINDOW_DIMENSIONS.x();
+        boxed = Noise.generateNoiseFunc(WorldGenerationBenchmark.SEED, dimY, dimX);
+        noise = Noise.generateNoise(WorldGenerationBenchmark.SEED, dimY, dimX);
+        cache = new HeightmapCache(noise, Block.SIZE, PAGE_COLUMNS, MAX_PAGES);
+        heights = new float[columns];
+    }
+
+    /**
+     * The original boxed function, one column at a time.
+     */
+    @Benchmark
+    public void generateNoiseFuncApply(Blackhole blackhole) {
+        for (int i = 0; i < columns; i++) {
+            blackhole.consume(boxed.apply((float) i * Block.SIZE));
+        }
+    }
+
+    /**
+     * The primitive function, one column at a time.
+     */
+    @Benchmark
+    public void noiseValueAt(Blackhole blackhole) {
+        for (int i = 0; i < columns; i++) {
+            blackhole.consume(noise.valueAt(i * Block.SIZE));
+        }
+    }
+
+    /**
+     * The primitive function, all the columns in one batch.
+     */
+    @Benchmark
+    public float[] noiseFill() {
+        noise.fill(heights, 0, Block.SIZE);
+        return heights;
+    }
+
+    /**
+     * All the columns copied from a warm heightmap cache.
+     */
+    @Benchmark
+    public float[] heightmapCacheFill() {
+        cache.fill(heights, 0, Block.SIZE);
+        return heights;
+    }
+}
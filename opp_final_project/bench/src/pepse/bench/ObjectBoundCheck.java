@@ -0,0 +1,121 @@
+package pepse.bench;
+
+import danogl.GameObject;
+import danogl.gui.ImageReader;
+import danogl.gui.SoundReader;
+import danogl.util.Vector2;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Checks that the number of objects in the game stays bounded however far the avatar goes, so the chunks
+ * that are left behind really are evicted. The avatar is moved directly, a fixed step every frame, over a
+ * long distance to the right and back, with no scripted keys that could get stuck on the way. After every
+ * frame, every layer must hold at most its bound of objects. The run fails with an exception at the first
+ * frame over a bound, and prints the most objects seen in every layer otherwise.
+ * Arguments, all optional, as name=value: distance (pixels, default 600000), step (pixels per frame,
+ * default 16).
+ */
+public class ObjectBoundCheck {
+    private static final Vector2 WINDOW_DIMENSIONS = Vector2.of(1280, 720);
+    private static final float DELTA_TIME = 1 / 60f;
+    private static final float AVATAR_Y = 0; //above the ground, which never rises to the top of the window
+    //the most objects a layer may hold: a few chunks of ground and trees around the avatar, with some
+    //margin for the chunks whose eviction is still spread over the next frames
+    private static final Map<String, Integer> BOUNDS = Map.of(
+            "ground", 600,
+            "buriedGround", 30,
+            "trees", 40,
+            "leaves", 1500);
+    private static final int OTHER_LAYER_BOUND = 10; //the sky, the avatar, the hud and the overlay
+
+    private final float distance;
+    private final float step;
+    private final HeadlessGameManager game = new HeadlessGameManager();
+    private final Map<String, Integer> most = new LinkedHashMap<>();
+
+    /**
+     * constructor
+     * @param distance - how far the avatar goes right before coming back, in pixels
+     * @param step - how far the avatar is moved every frame, in pixels
+     */
+    public ObjectBoundCheck(float distance, float step) {
+        this.distance = distance;
+        this.step = step;
+    }
+
+    /**
+     * Moves the avatar to the right and back, and checks the objects of every layer after every frame.
+     * @throws IllegalStateException if a layer holds more objects than its bound
+     */
+    public void run() {
+        StubWindowController window = new StubWindowController(WINDOW_DIMENSIONS);
+        game.initializeGame(new ImageReader(window), new SoundReader(window), new ScriptedInput(new int[][]{{}}),
+                window);
+        GameObject avatar = game.camera().getObjectFollowed();
+        float startX = avatar.getCenter().x();
+        int frames = 0;
+        for (float x = startX; x < startX + distance; x += step) {
+            moveAvatar(avatar, x);
+            check(++frames, x);
+        }
+        for (float x = startX + distance; x > startX; x -= step) {
+            moveAvatar(avatar, x);
+            check(++frames, x);
+        }
+        System.out.printf("frames: %d, most objects by layer %s%n", frames, most);
+    }
+
+    /**
+     * Puts the avatar at a place, and runs a frame.
+     * @param avatar - the object the camera follows
+     * @param x - the new x coordinate of the avatar's center
+     */
+    private void moveAvatar(GameObject avatar, float x) {
+        avatar.setCenter(Vector2.of(x, AVATAR_Y));
+        avatar.setVelocity(Vector2.ZERO);
+        game.update(DELTA_TIME);
+    }
+
+    /**
+     * Checks the number of objects of every layer against its bound.
+     * @param frame - number of the frame that just ran
+     * @param x - x coordinate of the avatar
+     */
+    private void check(int frame, float x) {
+        for (Map.Entry<String, Integer> layer : game.countObjectsPerLayer().entrySet()) {
+            int count = layer.getValue();
+            most.merge(layer.getKey(), count, Math::max);
+            int bound = BOUNDS.getOrDefault(layer.getKey(), OTHER_LAYER_BOUND);
+            if (count > bound) {
+                throw new IllegalStateException(String.format("%d objects in %s at frame %d, x=%.0f, bound %d",
+                        count, layer.getKey(), frame, x, bound));
+            }
+        }
+    }
+
+    /**
+     * Runs the check.
+     * @param args - optional name=value arguments, see the class documentation
+     */
+    public static void main(String[] args) {
+        float distance = 600_000;
+        float step = 16;
+        for (String arg : args) {
+            String[] nameValue = arg.split("=", 2);
+            if (nameValue.length != 2) throw new IllegalArgumentException("expected name=value: " + arg);
+            switch (nameValue[0]) {
+                case "distance":
+                    distance = Float.parseFloat(nameValue[1]);
+                    break;
+                case "step":
+                    step = Float.parseFloat(nameValue[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown argument: " + nameValue[0]);
+            }
+        }
+        new ObjectBoundCheck(distance, step).run();
+    }
+}
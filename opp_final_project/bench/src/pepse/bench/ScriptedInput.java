@@ -0,0 +1,71 @@
+package pepse.bench;
+
+import danogl.gui.UserInputListener;
+import danogl.gui.mouse.MouseButton;
+import danogl.util.Vector2;
+
+/**
+ * Replays a fixed script of pressed keys, one step per frame, and loops when the script ends.
+ * The mouse is never used.
+ */
+public class ScriptedInput implements UserInputListener {
+    private int[][] script;
+    private int frame = 0;
+
+    /**
+     * constructor
+     * @param script - the keys pressed in every frame, as KeyEvent codes
+     */
+    public ScriptedInput(int[][] script) {
+        this.script = script;
+    }
+
+    /**
+     * Replaces the script, starting from its first frame.
+     * @param script - the keys pressed in every frame, as KeyEvent codes
+     */
+    public void setScript(int[][] script) {
+        this.script = script;
+        frame = 0;
+    }
+
+    /**
+     * Moves to the next frame of the script.
+     */
+    public void nextFrame() {
+        frame = (frame + 1) % script.length;
+    }
+
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        for (int key : script[frame]) {
+            if (key == keyCode) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean wasKeyReleasedThisFrame(int keyCode) {
+        return false;
+    }
+
+    @Override
+    public boolean wasMouseButtonClickedThisFrame(MouseButton button) {
+        return false;
+    }
+
+    @Override
+    public boolean isMouseButtonPressed(MouseButton button) {
+        return false;
+    }
+
+    @Override
+    public Vector2 getMouseScreenPos() {
+        return Vector2.ZERO;
+    }
+
+    @Override
+    public double mouseWheelClicksThisFrame() {
+        return 0;
+    }
+}
@@ -0,0 +1,49 @@
+package pepse.bench;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+
+/**
+ * A collection that only counts the objects added to it and removed from it, so the benchmarks measure
+ * the work of pepse and not the layer bookkeeping of danogl.
+ */
+public class StubGameObjectCollection extends GameObjectCollection {
+    private long added = 0;
+    private long removed = 0;
+
+    @Override
+    public void addGameObject(GameObject gameObject, int layerId) {
+        added++;
+    }
+
+    @Override
+    public void addGameObject(GameObject gameObject) {
+        added++;
+    }
+
+    @Override
+    public boolean removeGameObject(GameObject gameObject, int layerId) {
+        removed++;
+        return true;
+    }
+
+    @Override
+    public boolean removeGameObject(GameObject gameObject) {
+        removed++;
+        return true;
+    }
+
+    /**
+     * @return number of objects added so far
+     */
+    public long getAdded() {
+        return added;
+    }
+
+    /**
+     * @return number of objects removed so far
+     */
+    public long getRemoved() {
+        return removed;
+    }
+}
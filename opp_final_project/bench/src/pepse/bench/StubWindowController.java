@@ -0,0 +1,78 @@
+package pepse.bench;
+
+import danogl.gui.WindowController;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+/**
+ * A window that is never opened, for code that needs a WindowController outside of a running game.
+ */
+public class StubWindowController implements WindowController {
+    private final Vector2 windowDimensions;
+
+    /**
+     * constructor
+     * @param windowDimensions - size reported for the window
+     */
+    public StubWindowController(Vector2 windowDimensions) {
+        this.windowDimensions = windowDimensions;
+    }
+
+    @Override
+    public void closeWindow() {
+    }
+
+    @Override
+    public void resetGame() {
+    }
+
+    @Override
+    public void showMessageBox(String message) {
+        throw new IllegalStateException(message);
+    }
+
+    @Override
+    public boolean openYesNoDialog(String message) {
+        return false;
+    }
+
+    @Override
+    public double getTimeScale() {
+        return 1;
+    }
+
+    @Override
+    public void setTimeScale(float timeScale) {
+    }
+
+    @Override
+    public Vector2 getWindowDimensions() {
+        return windowDimensions;
+    }
+
+    @Override
+    public void setTargetFramerate(int targetFramerate) {
+    }
+
+    @Override
+    public void setPauseButton(int pauseButton) {
+    }
+
+    @Override
+    public void setExitButton(int exitButton) {
+    }
+
+    @Override
+    public void setMouseCursor(Renderable renderable, Vector2 dimensions, Vector2 hotspot) {
+    }
+
+    @Override
+    public Renderable getMouseCursor() {
+        return null;
+    }
+
+    @Override
+    public Vector2 getMouseCursorDimensions() {
+        return Vector2.ZERO;
+    }
+}
@@ -0,0 +1,100 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.*;
+import pepse.util.Noise;
+import pepse.util.TimingWheel;
+import pepse.world.Block;
+import pepse.world.trees.LeafSystem;
+import pepse.world.trees.Tree;
+import pepse.world.trees.TreePlan;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Planning the trees and leaves of a wide range, in one call and split into chunk-wide ranges planned in
+ * parallel in fork-join pools of different sizes, the way the game's generator workers plan chunks, to show
+ * how the layout scales with the cores. The heights come from the noise function itself and not from the
+ * terrain's cache, so the ranges share no lock.
+ * The setup checks that both ways plan exactly the same trees.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreePlanningBenchmark {
+    private static final float TIMER_TICK = 1 / 30f;
+    private static final int TIMER_WHEEL_BITS = 8;
+    private static final float GROUND_HEIGHT = 2f / 3f;
+    private static final int CHUNK_WIDTH = Block.SIZE * 20; //the width of the game's chunks
+
+    @Param({"60000"})
+    private int width;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private Tree tree;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        StubGameObjectCollection gameObjects = new StubGameObjectCollection();
+        LeafSystem leafSystem = new LeafSystem(gameObjects, WorldGenerationBenchmark.LEAVES_LAYER,
+                new TimingWheel(TIMER_TICK, TIMER_WHEEL_BITS));
+        float groundHeightAtX0 = WorldGenerationBenchmark.WINDOW_DIMENSIONS.y() * GROUND_HEIGHT;
+        tree = new Tree(gameObjects, Noise.generateNoise(WorldGenerationBenchmark.SEED, groundHeightAtX0,
+                WorldGenerationBenchmark.WINDOW_DIMENSIONS.x()), WorldGenerationBenchmark.TREE_LAYER, leafSystem,
+                WorldGenerationBenchmark.SEED);
+        pool = new ForkJoinPool(threads);
+        if (!Arrays.equals(encode(sequential()), encode(parallel()))) {
+            throw new IllegalStateException("the parallel plans differ from the sequential plans");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * The whole range in one call, on the benchmark thread.
+     */
+    @Benchmark
+    public List<TreePlan> sequential() {
+        return tree.planInRange(0, width);
+    }
+
+    /**
+     * Chunk-wide ranges split over the threads of the pool, their plans joined in order of x.
+     */
+    @Benchmark
+    public List<TreePlan> parallel() {
+        int chunks = (width + CHUNK_WIDTH - 1) / CHUNK_WIDTH;
+        return pool.submit(() -> IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> tree.planInRange(chunk * CHUNK_WIDTH,
+                        Math.min(width, (chunk + 1) * CHUNK_WIDTH)))
+                .flatMap(List::stream)
+                .collect(Collectors.toList())).join();
+    }
+
+    /**
+     * @param plans - plans of trees
+     * @return the plans in the world snapshot format, which holds every planned value
+     * @throws IOException never, the plans are written to memory
+     */
+    private byte[] encode(List<TreePlan> plans) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        tree.writePlans(plans, new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,109 @@
+package pepse.bench;
+
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.*;
+import pepse.util.TimingWheel;
+import pepse.world.Terrain;
+import pepse.world.TerrainPlan;
+import pepse.world.TerrainRenderMode;
+import pepse.world.chunks.Chunk;
+import pepse.world.trees.Leaf;
+import pepse.world.trees.LeafSystem;
+import pepse.world.trees.Tree;
+import pepse.world.trees.TreePlan;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating the ground and the trees of one chunk, the work done when the avatar walks into a new part of
+ * the world.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorldGenerationBenchmark {
+    static final Vector2 WINDOW_DIMENSIONS = Vector2.of(1280, 720);
+    static final int SEED = 120;
+    static final int GROUND_LAYER = -100;
+    static final int TREE_LAYER = -90;
+    static final int LEAVES_LAYER = -50;
+    private static final float TIMER_TICK = 1 / 30f;
+    private static final int TIMER_WHEEL_BITS = 8;
+
+    @Param({"600"})
+    private int width;
+
+    @Param({"COLUMNS", "BAKED"})
+    private TerrainRenderMode renderMode;
+
+    private Terrain terrain;
+    private Tree tree;
+    private LeafSystem leafSystem;
+    private Chunk chunk;
+    private int minX = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StubGameObjectCollection gameObjects = new StubGameObjectCollection();
+        terrain = new Terrain(gameObjects, GROUND_LAYER, WINDOW_DIMENSIONS, SEED, renderMode);
+        leafSystem = new LeafSystem(gameObjects, LEAVES_LAYER, new TimingWheel(TIMER_TICK, TIMER_WHEEL_BITS));
+        tree = new Tree(gameObjects, terrain::groundHeightAt, TREE_LAYER, leafSystem, SEED);
+        chunk = new Chunk(0, width);
+    }
+
+    /**
+     * Gives the leaves of the last invocation back to the leaf system, so its arrays do not keep growing,
+     * and frees the ground images of the last invocation.
+     */
+    @TearDown(Level.Invocation)
+    public void releaseLeaves() {
+        chunk.releaseObjects((object, layer) -> {
+            if (layer == LEAVES_LAYER) {
+                leafSystem.remove((Leaf) object);
+            } else {
+                terrain.release(object);
+            }
+        });
+        leafSystem.update(0);
+        terrain.flushReleasedImages();
+    }
+
+    /**
+     * Ground of a range that is already in the heightmap cache, created the way createInRange does, but
+     * registered so its images are released after the invocation.
+     */
+    @Benchmark
+    public void terrainCreateInRange() {
+        terrain.materialize(terrain.planInRange(minX, minX + width), chunk::register);
+    }
+
+    /**
+     * Ground of a range that was never visited, so its heights are computed too.
+     */
+    @Benchmark
+    public TerrainPlan terrainPlanNewRange() {
+        minX += width;
+        return terrain.planInRange(minX, minX + width);
+    }
+
+    /**
+     * Trunks and leaves of a range, created the way createInRange does, but registered so they can be
+     * released after the invocation.
+     */
+    @Benchmark
+    public void treeCreateInRange() {
+        tree.materialize(tree.planInRange(minX, minX + width), chunk::register);
+    }
+
+    /**
+     * Only the layout of the trees of a range, the part that can run on a worker thread.
+     */
+    @Benchmark
+    public List<TreePlan> treePlanInRange() {
+        return tree.planInRange(minX, minX + width);
+    }
+}
@@ -9,29 +9,66 @@ import danogl.gui.UserInputListener;
 import danogl.gui.WindowController;
 import danogl.gui.rendering.Camera;
 import danogl.util.Vector2;
+import pepse.metrics.ChunkEvictionEvent;
+import pepse.metrics.FrameMetrics;
+import pepse.metrics.MetricsOverlay;
+import pepse.metrics.StreamingEvent;
+import pepse.util.AssetCache;
+import pepse.util.GridCollisionCollection;
+import pepse.util.HeightmapCache;
+import pepse.util.TimingWheel;
+import pepse.util.WorkScheduler;
 import pepse.world.*;
-import pepse.world.daynight.Night;
-import pepse.world.daynight.Sun;
-import pepse.world.daynight.SunHalo;
+import pepse.world.chunks.Chunk;
+import pepse.world.chunks.ChunkGenerator;
+import pepse.world.chunks.ChunkManager;
+import pepse.world.chunks.ChunkState;
+import pepse.world.chunks.WorldSnapshot;
+import pepse.world.daynight.DayNightClock;
 import pepse.world.trees.Leaf;
+import pepse.world.trees.LeafGroundContact;
+import pepse.world.trees.LeafSystem;
 import pepse.world.trees.Tree;
 
 import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages PEPSE game.
  */
-public class PepseGameManager extends GameManager {
+public class PepseGameManager extends GameManager implements ChunkManager.ChunkListener {
 
     private static final int SEED = 100 + new Random().nextInt(50);
     private static final int INIT_MAX_X = 5000;
-    private static final int INIT_MIN_X = -INIT_MAX_X;
+    private static final int CHUNK_WIDTH = Block.SIZE * 20;
+    private static final int VIEW_RADIUS = INIT_MAX_X / CHUNK_WIDTH + 1; //keep ~INIT_MAX_X on each side
+    private static final boolean ASYNC_GENERATION = true;
+    private static final int GENERATOR_THREADS = 2;
+    private static final boolean WORLD_SNAPSHOT = true;
+    private static final boolean GRID_COLLISIONS = true;
+    private static final int COLLISION_CELL_SIZE = Block.SIZE * 4;
+    private static final int CHUNKS_STARTED_PER_FRAME = 2;
+    private static final long WORLD_WORK_BUDGET_MILLIS = 3; //of creating and removing chunk objects per frame
+    private static final int EVICTION_BATCH = 64;
+    private static final int VIEW_MARGIN = Block.SIZE * 5; //what the avatar walks until the workers finish
+    private static final int CULLING_MARGIN = Block.SIZE * 10; //trees and leaves shown beyond the window
+    private static final Path SNAPSHOT_DIRECTORY = Paths.get(System.getProperty("java.io.tmpdir"), "pepse");
+    private static final TerrainRenderMode TERRAIN_RENDER_MODE = TerrainRenderMode.BAKED;
+    private static final LeafGroundContact LEAF_GROUND_CONTACT = LeafGroundContact.HEIGHTMAP;
+    private static final float TIMER_TICK = 1 / 30f;
+    private static final int TIMER_WHEEL_BITS = 8;
     private static final int SKY_LAYER = Layer.BACKGROUND;
     private static final int GROUND_LAYER = Layer.STATIC_OBJECTS;
     private static final int NIGHT_LAYER = Layer.FOREGROUND;
-    private static final int SUN_LAYER = Layer.BACKGROUND + 1;
-    private static final int SUN_HALO_LAYER = Layer.BACKGROUND + 10;
     private static final int TREE_LAYER = Layer.STATIC_OBJECTS + 10;
     private static final int LEAVES_LAYER = Layer.STATIC_OBJECTS + 50;
     private static final int AVATAR_LAYER = Layer.DEFAULT;
@@ -39,11 +76,29 @@ public class PepseGameManager extends GameManager {
     private static final int CYCLE_LENGTH = 30;
     private static final float HALF = 0.5f;
     private static final int MINUS = -1;
-    private static int cur_minX = INIT_MIN_X, cur_maxX = INIT_MAX_X;
+    private static final int METRICS_TOGGLE_KEY = KeyEvent.VK_M;
+    private static final int FRAMES_BETWEEN_OBJECT_COUNTS = 30;
     private Terrain terrain;
     private Avatar avatar;
     private Tree tree;
+    private LeafSystem leafSystem;
+    private TimingWheel timers;
+    private ChunkManager chunkManager;
+    private volatile ChunkGenerator chunkGenerator; //closed by the shutdown hook
+    private WorkScheduler worldWork;
     private Vector2 windowDimensions;
+    private AssetCache assets;
+    private FrameMetrics metrics;
+    private FrameMetrics.Section frameTime;
+    private FrameMetrics.Section generationTime;
+    private FrameMetrics.Section evictionTime;
+    private FrameMetrics.Section worldWorkTime;
+    private FrameMetrics.Section leavesTime;
+    private FrameMetrics.Section cullingTime;
+    private int framesSinceObjectCount = 0;
+    private long initializeStart;
+    private int frames = 0;
+    private final List<Chunk> deferredChunks = new ArrayList<>();
 
     /**
      * initializeGame - initialize all the objects in the game
@@ -56,46 +111,128 @@ public class PepseGameManager extends GameManager {
     public void initializeGame(ImageReader imageReader, SoundReader soundReader,
                                UserInputListener inputListener,
                                WindowController windowController) {
-        super.initializeGame(imageReader, soundReader, inputListener, windowController);
+        initializeStart = System.nanoTime();
+        initializeEngine(imageReader, soundReader, inputListener, windowController);
+        initializeCollisions();
         windowDimensions = windowController.getWindowDimensions();
         //windowController.setTargetFramerate(60);
+        initializeMetrics();
 
-        Sky.create(gameObjects(),windowDimensions, SKY_LAYER);
-
-        terrain = new Terrain(gameObjects(), GROUND_LAYER, windowDimensions, SEED);
-        terrain.createInRange(INIT_MIN_X, INIT_MAX_X);
+        //decode all the sprites once, so spawning the sidekick never reads the disk mid-frame. Only the
+        //avatar is drawn on the first frame, the sidekick is decoded in the background after it
+        assets = new AssetCache(windowController);
+        assets.preload(Avatar.SPRITE_PATHS);
 
-        Night.create(gameObjects(), NIGHT_LAYER, windowDimensions, CYCLE_LENGTH);
+        terrain = new Terrain(gameObjects(), GROUND_LAYER, windowDimensions, SEED, TERRAIN_RENDER_MODE);
+        HeightmapCache heights = terrain.getHeightmapCache();
+        metrics.gauge("heightmap.hits", heights::getHits);
+        metrics.gauge("heightmap.misses", heights::getMisses);
+        metrics.gauge("heightmap.pages", heights::getPageCount);
 
-        GameObject sun = Sun.create(gameObjects(), SUN_LAYER,
-                windowDimensions, CYCLE_LENGTH);
+        //the sky, the sun with its halo and the night are all driven by a single clock
+        DayNightClock.create(gameObjects(), SKY_LAYER, NIGHT_LAYER, windowDimensions, CYCLE_LENGTH,
+                SUN_HALO_COLOR, metrics.section("dayNight"));
 
-        SunHalo.create(gameObjects(), SUN_HALO_LAYER, sun,
-                SUN_HALO_COLOR);
+        timers = new TimingWheel(TIMER_TICK, TIMER_WHEEL_BITS);
+        leafSystem = new LeafSystem(gameObjects(), LEAVES_LAYER, timers);
+        if (LEAF_GROUND_CONTACT == LeafGroundContact.HEIGHTMAP) {
+            leafSystem.setGroundHeightmap(terrain::groundHeightAt);
+        }
+        metrics.gauge("leaves.pool", leafSystem::getPoolSize);
+        metrics.gauge("leaves.created", leafSystem::getLeavesCreated);
+        metrics.gauge("leaves.reused", leafSystem::getLeavesReused);
+        metrics.gauge("leaves.reuseRate", leafSystem::getReuseRate);
+        metrics.gauge("leaves.active", leafSystem::getActiveCount);
+        metrics.gauge("leaves.timers", timers::pendingCount);
+        tree = new Tree(gameObjects(), terrain::groundHeightAt, TREE_LAYER, leafSystem, SEED);
 
-        tree = new Tree(gameObjects(), terrain::groundHeightAt, TREE_LAYER, LEAVES_LAYER, SEED);
-        tree.createInRange(INIT_MIN_X, INIT_MAX_X);
+        initializeAvatar(inputListener, windowController);
 
+        //create the world around the camera - only the chunks in view are created before the first frame,
+        //the rest of the view radius is deferred and added over the next frames
+        if (chunkGenerator == null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> chunkGenerator.close(), "world-snapshot"));
+        } else {
+            chunkGenerator.close(); //the game restarted, the new world opens the snapshot again
+        }
+        chunkGenerator = new ChunkGenerator(terrain, tree, GENERATOR_THREADS);
+        chunkGenerator.setSnapshot(openSnapshot());
+        chunkGenerator.setAsync(ASYNC_GENERATION);
+        worldWork = new WorkScheduler(TimeUnit.MILLISECONDS.toNanos(WORLD_WORK_BUDGET_MILLIS));
+        chunkManager = new ChunkManager(CHUNK_WIDTH, VIEW_RADIUS, this);
+        chunkManager.update(streamingFocusX());
         initializeLayers();
-        initializeAvatar(imageReader, inputListener, windowController);
+        MetricsOverlay.create(gameObjects(), metrics, inputListener, METRICS_TOGGLE_KEY);
+    }
+
+    /**
+     * Creates the sections the frame time is split into. Registers them over JMX.
+     */
+    private void initializeMetrics() {
+        metrics = new FrameMetrics();
+        frameTime = metrics.section("frame");
+        generationTime = metrics.section("generation");
+        evictionTime = metrics.section("eviction");
+        worldWorkTime = metrics.section("worldWork");
+        leavesTime = metrics.section("leaves");
+        cullingTime = metrics.section("culling");
+    }
+
+    /**
+     * Opens the snapshot of this world. The world is derived from the seed and the window size, and is cut
+     * into chunks of a fixed width, so all of them are in its key.
+     * @return the snapshot, or null if it is disabled or cannot be opened, and every chunk is planned
+     */
+    private WorldSnapshot openSnapshot() {
+        if (!WORLD_SNAPSHOT) return null;
+        try {
+            return WorldSnapshot.open(SNAPSHOT_DIRECTORY.resolve("world-" + SEED + ".bin"),
+                    SEED, CHUNK_WIDTH, (int) windowDimensions.x(), (int) windowDimensions.y());
+        } catch (IOException e) {
+            return null; //the game runs the same without the snapshot
+        }
+    }
 
+    /**
+     * Initializes the engine: the collection of the game objects and the mouse listeners of the window.
+     * Overridden to run the game without a window.
+     * @param imageReader - image reader
+     * @param soundReader - sound reader
+     * @param inputListener - parse keys
+     * @param windowController object
+     */
+    protected void initializeEngine(ImageReader imageReader, SoundReader soundReader,
+                                    UserInputListener inputListener, WindowController windowController) {
+        super.initializeGame(imageReader, soundReader, inputListener, windowController);
+    }
+
+    /**
+     * Replaces the engine's collection with one that collides the avatars with the ground and the trees
+     * through a grid, so the collision cost does not grow with the loaded world. Done before any object is
+     * added, so every static object is indexed.
+     */
+    private void initializeCollisions() {
+        if (!GRID_COLLISIONS) return;
+        GridCollisionCollection collection = new GridCollisionCollection(COLLISION_CELL_SIZE);
+        collection.collideThroughGrid(AVATAR_LAYER, GROUND_LAYER);
+        collection.collideThroughGrid(AVATAR_LAYER, TREE_LAYER);
+        setGameObjectsCollection(collection);
     }
 
     /**
      * Initializes avatar and camera
-     * @param imageReader
      * @param inputListener
      * @param windowController
      */
-    private void initializeAvatar(ImageReader imageReader, UserInputListener inputListener,
-                           WindowController windowController) {
+    private void initializeAvatar(UserInputListener inputListener, WindowController windowController) {
         //create avatar
         float midX = windowDimensions.x() / 2;
         float y =
             (float) Math.floor(terrain.groundHeightAt(midX) / Block.SIZE) * Block.SIZE - Block.SIZE - Avatar.AVATAR_SIZE;
         Vector2 initialAvatarLocation = new Vector2(midX, y);
         avatar = Avatar.create(gameObjects(), AVATAR_LAYER, initialAvatarLocation,
-            inputListener, imageReader);
+            inputListener, assets);
+        avatar.setUpdateMetrics(metrics.section("avatar"));
 
         //set camera following after the avatar
         Camera camera = new Camera(avatar, windowDimensions.mult(HALF).add(initialAvatarLocation.mult(MINUS)),
@@ -109,12 +246,30 @@ public class PepseGameManager extends GameManager {
      * Initializes layers to ensure proper collisions.
      */
     private void initializeLayers() {
-        //set avatar collide with the ground and tree
-        gameObjects().layers().shouldLayersCollide(AVATAR_LAYER, GROUND_LAYER,true); //first layer
-        //gameObjects().layers().shouldLayersCollide(AVATAR_LAYER,Terrain.GROUND_LAYER, true);
-        gameObjects().layers().shouldLayersCollide(AVATAR_LAYER, TREE_LAYER,true);
-        //set leaves collide with rhe first layer of the ground
-        gameObjects().layers().shouldLayersCollide(LEAVES_LAYER, GROUND_LAYER, true);
+        //layers must already exist to be configured, and the chunks in view might have no trees
+        createLayer(GROUND_LAYER);
+        createLayer(TREE_LAYER);
+        createLayer(LEAVES_LAYER);
+        //set avatar collide with the ground and tree, unless they collide through the grid
+        if (!GRID_COLLISIONS) {
+            gameObjects().layers().shouldLayersCollide(AVATAR_LAYER, GROUND_LAYER,true); //first layer
+            //gameObjects().layers().shouldLayersCollide(AVATAR_LAYER,Terrain.GROUND_LAYER, true);
+            gameObjects().layers().shouldLayersCollide(AVATAR_LAYER, TREE_LAYER,true);
+        }
+        //set leaves collide with rhe first layer of the ground, unless they land on the heightmap
+        if (LEAF_GROUND_CONTACT == LeafGroundContact.COLLISION) {
+            gameObjects().layers().shouldLayersCollide(LEAVES_LAYER, GROUND_LAYER, true);
+        }
+    }
+
+    /**
+     * Makes sure a layer exists, by adding an object to it and removing it. A layer stays once it exists.
+     * @param layer - the layer
+     */
+    private void createLayer(int layer) {
+        GameObject marker = new GameObject(Vector2.ZERO, Vector2.ZERO, null);
+        gameObjects().addGameObject(marker, layer);
+        gameObjects().removeGameObject(marker, layer);
     }
 
     /**
@@ -123,63 +278,244 @@ public class PepseGameManager extends GameManager {
      */
     @Override
     public void update(float deltaTime) {
+        if (frames == 1) {
+            startBackgroundWork();
+        }
+        long frameStart = frameTime.start();
         super.update(deltaTime);
-        //Real world - adding more trees and ground
-        //check if avatar get closer to the end of the ground
-        if (avatar.getCenter().x() + windowDimensions.x() > cur_maxX) {
-            terrain.createInRange(cur_maxX, cur_maxX + INIT_MAX_X);
-            tree.createInRange(cur_maxX, cur_maxX + INIT_MAX_X);
-            cur_maxX += INIT_MAX_X;
-            cur_minX -= INIT_MIN_X;
-            removeBesidesRange(cur_minX, cur_maxX); //remove the unnecessary objects
+        terrain.flushReleasedImages(); //the ground removed last frame is out of the game now
+        long leavesStart = leavesTime.start();
+        timers.advance(deltaTime);
+        leafSystem.update(deltaTime);
+        leavesTime.stop(leavesStart);
+        //Real world - load the chunks around the camera and unload the far ones
+        streamWorld();
+        //hide the trees and leaves far from the camera, so the frame only pays for what is on screen
+        long cullingStart = cullingTime.start();
+        float halfView = windowDimensions.x() / 2 + CULLING_MARGIN;
+        float focusX = streamingFocusX();
+        chunkManager.updateVisibility(focusX - halfView, focusX + halfView);
+        cullingTime.stop(cullingStart);
+        long generationStart = generationTime.start();
+        generateDeferredChunks();
+        chunkGenerator.scheduleReady(worldWork);
+        generationTime.stop(generationStart);
+        //create and remove the objects of the chunks within the budget, the chunks nearest the camera first
+        long worldWorkStart = worldWorkTime.start();
+        worldWork.run(chunkManager.indexOf(streamingFocusX()));
+        worldWorkTime.stop(worldWorkStart);
+        frameTime.stop(frameStart);
+        if (frames++ == 0) {
+            metrics.setTimeToFirstFrame(System.nanoTime() - initializeStart);
         }
-        if (avatar.getCenter().x() - windowDimensions.x() < cur_minX) {
-            terrain.createInRange(cur_minX + INIT_MIN_X, cur_minX);
-            tree.createInRange(cur_minX + INIT_MIN_X, cur_minX);
-            cur_maxX -= INIT_MAX_X;
-            cur_minX += INIT_MIN_X;
-            removeBesidesRange(cur_minX, cur_maxX); //remove the unnecessary objects
+        sampleObjectCounts();
+        metrics.endFrame();
+    }
+
+    /**
+     * Starts the work that is not needed for the first frame. Called after the first frame was drawn, so
+     * it does not compete with the first frame for the processor.
+     */
+    private void startBackgroundWork() {
+        assets.preloadInBackground(MockAvatar.SPRITE_PATHS);
+        metrics.export();
+    }
+
+    /**
+     * Generates a few of the chunks that were deferred at startup, nearest to the camera first.
+     */
+    private void generateDeferredChunks() {
+        if (frames == 0) return;
+        for (int i = 0; i < CHUNKS_STARTED_PER_FRAME && !deferredChunks.isEmpty(); i++) {
+            Chunk chunk = deferredChunks.remove(0);
+            if (chunk.getState() == ChunkState.PLANNED) { //not evicted while it waited
+                chunkGenerator.generate(chunk);
+            }
+        }
+    }
+
+    /**
+     * Loads the chunks around the camera and unloads the far ones, and records a flight recorder event
+     * when the camera crossed into another chunk.
+     */
+    private void streamWorld() {
+        StreamingEvent event = new StreamingEvent();
+        event.begin();
+        float focusX = streamingFocusX();
+        if (chunkManager.update(focusX) && event.shouldCommit()) {
+            event.focusX = focusX;
+            event.chunk = chunkManager.indexOf(focusX);
+            event.loadedChunks = chunkManager.getChunkCount();
+            event.commit();
         }
     }
 
+    /**
+     * Counts the objects of every layer for the metrics, once every few frames since it goes over all of
+     * them.
+     */
+    private void sampleObjectCounts() {
+        if (++framesSinceObjectCount < FRAMES_BETWEEN_OBJECT_COUNTS) return;
+        framesSinceObjectCount = 0;
+        metrics.setObjectsPerLayer(countObjectsPerLayer());
+        metrics.sampleGauges();
+    }
 
+    /**
+     * The x coordinate the world is streamed around: the center of the camera. It is computed from the
+     * followed object, so it is correct even before the camera's first update.
+     * @return x coordinate of the camera center
+     */
+    private float streamingFocusX() {
+        Camera camera = camera();
+        return camera.getObjectFollowed().getCenter().x() + camera.getDeltaRelativeToObjectFollowed().x();
+    }
+
+    /**
+     * Creates the ground and trees of a chunk that entered the view radius. Chunks in view are created
+     * immediately, the others in the background when generation is asynchronous. Before the first frame,
+     * the chunks out of view are deferred, so the first frame only waits for what it shows.
+     * @param chunk to create
+     * @return true if the chunk was created immediately, false if it is generated later
+     */
+    @Override
+    public boolean onMaterialize(Chunk chunk) {
+        boolean inView = isInView(chunk);
+        if (frames == 0 && !inView) {
+            deferredChunks.add(chunk);
+            return false;
+        }
+        long start = generationTime.start();
+        boolean created = chunkGenerator.generate(chunk, inView);
+        generationTime.stop(start);
+        return created;
+    }
 
     /**
-     * Responsible for remove all the objects that beside the range of the game
-     * @param minX of range of the game
-     * @param maxX of range of the game
+     * @param chunk - a chunk
+     * @return true if the chunk is in the window, or close enough to be seen before a background plan of it
+     * would be ready
      */
-    private void removeBesidesRange(int minX, int maxX) {
-        for (GameObject object : gameObjects().objectsInLayer(Layer.STATIC_OBJECTS)) {
-            if(object.getTopLeftCorner().x()  <= maxX && object.getTopLeftCorner().x() >= minX) continue;
-            switch (object.getTag()){
-                case Tree.TREE_TAG:
-                    gameObjects().removeGameObject(object,TREE_LAYER);
-                    break;
-                case Leaf.LEAF_TAG:
-                    gameObjects().removeGameObject(object,LEAVES_LAYER);
-                    break;
-                case Terrain.GROUND_TAG:
-                    gameObjects().removeGameObject(object,Terrain.GROUND_LAYER);
-                    break;
-                case Terrain.GROUND_FIRST_LAYER_TAG:
-                    gameObjects().removeGameObject(object,GROUND_LAYER);
-                    break;
-                default:
+    private boolean isInView(Chunk chunk) {
+        float halfView = windowDimensions.x() / 2 + VIEW_MARGIN;
+        float focusX = streamingFocusX();
+        return chunk.getMaxX() > focusX - halfView && chunk.getMinX() < focusX + halfView;
+    }
 
+    /**
+     * Hides or shows the trees and leaves of a chunk. Hidden trunks are out of the game, so they are neither
+     * drawn nor collided with, and hidden leaves are suspended by the leaf system, which also stops their
+     * animation. The ground stays, it is a few baked images per chunk and the avatar may stand on it.
+     * @param chunk - a materialized chunk
+     * @param visible - whether the chunk is now visible
+     */
+    @Override
+    public void onVisibilityChanged(Chunk chunk, boolean visible) {
+        chunk.forEachObject((object, layer) -> {
+            if (layer == LEAVES_LAYER) {
+                if (visible) {
+                    leafSystem.resume((Leaf) object);
+                } else {
+                    leafSystem.suspend((Leaf) object);
+                }
+            } else if (layer == TREE_LAYER) {
+                if (visible) {
+                    gameObjects().addGameObject(object, layer);
+                } else {
+                    gameObjects().removeGameObject(object, layer);
+                }
             }
-            if (!object.getTag().equals(Tree.TREE_TAG) && !object.getTag().equals(Leaf.LEAF_TAG) &&
-                !object.getTag().equals(Terrain.GROUND_TAG)) continue;
-            if (object.getTopLeftCorner().x() > maxX) {
-                gameObjects().removeGameObject(object, Layer.STATIC_OBJECTS);
-            } else if (object.getTopLeftCorner().x() < minX) {
-                gameObjects().removeGameObject(object, Layer.STATIC_OBJECTS);
+        });
+    }
+
+    /**
+     * Removes the objects of a chunk that left the view radius, in batches that run within the world work
+     * budget.
+     * @param chunk to remove
+     */
+    @Override
+    public void onEvict(Chunk chunk) {
+        ChunkEvictionEvent event = new ChunkEvictionEvent();
+        event.begin();
+        int objects = chunk.getObjectCount();
+        worldWork.submit(chunk.getIndex(), () -> releaseBatch(chunk, event, objects));
+    }
+
+    /**
+     * Removes a batch of the objects of an evicted chunk, and schedules the next batch.
+     * @param chunk - the evicted chunk
+     * @param event - begun when the chunk was evicted
+     * @param objects - number of objects the chunk had when it was evicted
+     */
+    private void releaseBatch(Chunk chunk, ChunkEvictionEvent event, int objects) {
+        long start = evictionTime.start();
+        int left = chunk.releaseObjects((object, layer) -> {
+            if (chunk.isVisible() || layer != TREE_LAYER) { //hidden trunks are already out of the game
+                removeObject(object, layer);
             }
+        }, EVICTION_BATCH);
+        evictionTime.stop(start);
+        if (left > 0) {
+            worldWork.submit(chunk.getIndex(), () -> releaseBatch(chunk, event, objects));
+        } else if (event.shouldCommit()) {
+            event.chunk = chunk.getIndex();
+            event.minX = chunk.getMinX();
+            event.maxX = chunk.getMaxX();
+            event.objectsRemoved = objects;
+            event.commit();
         }
     }
 
+    /**
+     * Removes an object of an evicted chunk from the game. Leaves go back to the leaf system's pool, and the
+     * ground image an object draws is freed once the removal is applied.
+     * @param object to remove
+     * @param layer the object is in
+     */
+    private void removeObject(GameObject object, int layer) {
+        if (layer == LEAVES_LAYER) {
+            leafSystem.remove((Leaf) object);
+        } else {
+            gameObjects().removeGameObject(object, layer);
+            terrain.release(object);
+        }
+    }
 
+    /**
+     * @return the frame times and startup time of the game
+     */
+    public FrameMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Counts the objects in every layer of the game. Goes over all the objects, so it is meant for reports
+     * and not for every frame.
+     * @return number of objects by layer name
+     */
+    public Map<String, Integer> countObjectsPerLayer() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("sky", countObjects(SKY_LAYER));
+        counts.put("ground", countObjects(GROUND_LAYER));
+        counts.put("buriedGround", countObjects(Terrain.GROUND_LAYER));
+        counts.put("trees", countObjects(TREE_LAYER));
+        counts.put("leaves", countObjects(LEAVES_LAYER));
+        counts.put("avatar", countObjects(AVATAR_LAYER));
+        counts.put("nightAndHud", countObjects(NIGHT_LAYER));
+        return counts;
+    }
 
+    /**
+     * @param layer - a layer of the game
+     * @return number of objects in the layer
+     */
+    private int countObjects(int layer) {
+        int count = 0;
+        for (GameObject ignored : gameObjects().objectsInLayer(layer)) {
+            count++;
+        }
+        return count;
+    }
 
     /**
      * Main function to run program.
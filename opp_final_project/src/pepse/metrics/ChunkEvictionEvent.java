@@ -0,0 +1,34 @@
+package pepse.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of a chunk whose objects were removed from the game. Its duration is the time from
+ * the eviction to the removal of the last object, which spans several frames since the objects are removed
+ * in batches.
+ */
+@Name("pepse.ChunkEviction")
+@Label("Chunk Eviction")
+@Category({"PEPSE", "World"})
+@Description("The objects of a chunk that left the view radius were removed from the game")
+public class ChunkEvictionEvent extends Event {
+    /** index of the chunk */
+    @Label("Chunk")
+    public int chunk;
+
+    /** the first x coordinate of the chunk */
+    @Label("Min X")
+    public int minX;
+
+    /** the last x coordinate of the chunk (exclusive) */
+    @Label("Max X")
+    public int maxX;
+
+    /** number of objects removed */
+    @Label("Objects Removed")
+    public int objectsRemoved;
+}
@@ -0,0 +1,46 @@
+package pepse.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of a chunk whose objects were added to the game. Its duration is the time from the
+ * creation of the first object to the last, which spans several frames when the creation is scheduled. The
+ * planning is recorded by ChunkPlanningEvent.
+ */
+@Name("pepse.ChunkGeneration")
+@Label("Chunk Generation")
+@Category({"PEPSE", "World"})
+@Description("The objects of a chunk were added to the game")
+public class ChunkGenerationEvent extends Event {
+    /** index of the chunk */
+    @Label("Chunk")
+    public int chunk;
+
+    /** the first x coordinate of the chunk */
+    @Label("Min X")
+    public int minX;
+
+    /** the last x coordinate of the chunk (exclusive) */
+    @Label("Max X")
+    public int maxX;
+
+    /** number of ground columns created, each a surface block over the ground drawn below it */
+    @Label("Columns")
+    public int columns;
+
+    /** number of trees created */
+    @Label("Trees")
+    public int trees;
+
+    /** number of leaves created */
+    @Label("Leaves")
+    public int leaves;
+
+    /** whether the chunk was planned on a worker thread */
+    @Label("Async")
+    public boolean async;
+}
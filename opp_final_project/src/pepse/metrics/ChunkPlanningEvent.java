@@ -0,0 +1,33 @@
+package pepse.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of the computation of a chunk's content, or of its decoding from the world
+ * snapshot, on the thread that planned it.
+ */
+@Name("pepse.ChunkPlanning")
+@Label("Chunk Planning")
+@Category({"PEPSE", "World"})
+@Description("The ground and trees of a chunk were computed")
+public class ChunkPlanningEvent extends Event {
+    /** index of the chunk */
+    @Label("Chunk")
+    public int chunk;
+
+    /** the first x coordinate of the chunk */
+    @Label("Min X")
+    public int minX;
+
+    /** the last x coordinate of the chunk (exclusive) */
+    @Label("Max X")
+    public int maxX;
+
+    /** whether the plan was decoded from the world snapshot instead of computed */
+    @Label("From Snapshot")
+    public boolean fromSnapshot;
+}
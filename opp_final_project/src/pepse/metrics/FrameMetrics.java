@@ -0,0 +1,293 @@
+package pepse.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Measures how much of every frame each subsystem of the game takes, and how many objects are alive in
+ * every layer, and samples the gauges of the subsystems (such as cache hits). A subsystem is a Section: the time of all its calls in a frame is summed, and the sum is
+ * recorded in the section's histogram when the frame ends, so a subsystem that runs several times in a frame
+ * (or not at all) still adds exactly one sample per frame.
+ * The sections, the object counts and the gauges are registered as JMX MXBeans once export is called, and
+ * are shown by the MetricsOverlay.
+ * Sections are measured, and gauges are sampled, on the game thread only.
+ */
+public class FrameMetrics implements ObjectCountsMXBean {
+    private static final String DOMAIN = "pepse";
+    private static final String SECTION_NAME = DOMAIN + ":type=FrameTime,name=";
+    private static final String OBJECT_COUNTS_NAME = DOMAIN + ":type=ObjectCounts";
+    private static final String STARTUP_NAME = DOMAIN + ":type=Startup";
+    private static final String GAUGES_NAME = DOMAIN + ":type=Gauges";
+    private static final long NOT_MEASURED = -1;
+    private static final Executor REGISTRATION = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "metrics-registration");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double MEDIAN = 50;
+    private static final double P99 = 99;
+
+    /**
+     * The time a subsystem takes in every frame.
+     */
+    public static class Section implements SectionMXBean {
+        /** A section that measures nothing, for objects that are not measured. Shared by any thread. */
+        public static final Section DISABLED = new Section("disabled") {
+            @Override
+            public long start() {
+                return 0;
+            }
+
+            @Override
+            public void stop(long start) {
+            }
+        };
+
+        private final String name;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private long frameNanos = 0;
+
+        /**
+         * constructor
+         * @param name - name of the subsystem
+         */
+        private Section(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return name of the subsystem
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the current time, to pass to stop when the subsystem's work is done
+         */
+        public long start() {
+            return System.nanoTime();
+        }
+
+        /**
+         * Adds the time since start to the current frame.
+         * @param start - returned by start
+         */
+        public void stop(long start) {
+            frameNanos += System.nanoTime() - start;
+        }
+
+        /**
+         * @return histogram of the time per frame, in nanoseconds
+         */
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+
+        @Override
+        public long getFrameCount() {
+            return histogram.getCount();
+        }
+
+        @Override
+        public double getP50Millis() {
+            return histogram.percentile(MEDIAN) / NANOS_PER_MILLI;
+        }
+
+        @Override
+        public double getP99Millis() {
+            return histogram.percentile(P99) / NANOS_PER_MILLI;
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return histogram.getMax() / NANOS_PER_MILLI;
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return histogram.getMean() / NANOS_PER_MILLI;
+        }
+
+        @Override
+        public void reset() {
+            histogram.reset();
+        }
+
+        /**
+         * Records the time of the frame that ended and starts a new one.
+         */
+        private void endFrame() {
+            histogram.record(frameNanos);
+            frameNanos = 0;
+        }
+    }
+
+    /**
+     * The time the game took to show its first frame.
+     */
+    private static final class Startup implements StartupMXBean {
+        private volatile long timeToFirstFrame = NOT_MEASURED;
+
+        @Override
+        public double getTimeToFirstFrameMillis() {
+            return timeToFirstFrame == NOT_MEASURED ? NOT_MEASURED : timeToFirstFrame / NANOS_PER_MILLI;
+        }
+    }
+
+    private final List<Section> sections = new ArrayList<>();
+    private final Startup startup = new Startup();
+    private final Map<String, DoubleSupplier> gauges = new LinkedHashMap<>();
+    private final GaugesMXBean gaugeValues = this::getGauges;
+    private volatile Map<String, Integer> objectsPerLayer = Collections.emptyMap();
+    private volatile Map<String, Double> sampledGauges = Collections.emptyMap();
+    private boolean exported = false;
+
+    /**
+     * Registers the sections, the object counts and the startup time over JMX, and every section created
+     * later. Starting the platform server takes a few hundred milliseconds, so the registration is done on
+     * a background thread.
+     */
+    public void export() {
+        if (exported) return;
+        exported = true;
+        register(OBJECT_COUNTS_NAME, this);
+        register(STARTUP_NAME, startup);
+        register(GAUGES_NAME, gaugeValues);
+        for (Section section : sections) {
+            register(SECTION_NAME + ObjectName.quote(section.getName()), section);
+        }
+    }
+
+    /**
+     * Creates a section, and registers it over JMX if the metrics are exported.
+     * @param name - name of the subsystem
+     * @return the new section
+     */
+    public Section section(String name) {
+        Section section = new Section(name);
+        sections.add(section);
+        if (exported) {
+            register(SECTION_NAME + ObjectName.quote(name), section);
+        }
+        return section;
+    }
+
+    /**
+     * Adds a gauge, sampled with the object counts.
+     * @param name - name of the gauge
+     * @param value - reads the current value, called on the game thread
+     */
+    public void gauge(String name, DoubleSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Reads every gauge. Called on the game thread, every few frames.
+     */
+    public void sampleGauges() {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (Map.Entry<String, DoubleSupplier> gauge : gauges.entrySet()) {
+            values.put(gauge.getKey(), gauge.getValue().getAsDouble());
+        }
+        sampledGauges = Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * @return value of every gauge by name, as last sampled
+     */
+    public Map<String, Double> getGauges() {
+        return sampledGauges;
+    }
+
+    /**
+     * @return all the sections, in the order they were created
+     */
+    public List<Section> getSections() {
+        return Collections.unmodifiableList(sections);
+    }
+
+    /**
+     * Records the time every section took in the frame that ended. Called once at the end of every frame.
+     */
+    public void endFrame() {
+        for (Section section : sections) {
+            section.endFrame();
+        }
+    }
+
+    /**
+     * @param nanos - time from the start of initializeGame to the end of the first frame's update
+     */
+    public void setTimeToFirstFrame(long nanos) {
+        startup.timeToFirstFrame = nanos;
+    }
+
+    /**
+     * @return time from the start of initializeGame to the end of the first frame's update, in
+     * milliseconds, or -1 before the first frame
+     */
+    public double getTimeToFirstFrameMillis() {
+        return startup.getTimeToFirstFrameMillis();
+    }
+
+    /**
+     * @param objectsPerLayer - a fresh sample of the number of objects by layer name, never modified later
+     */
+    public void setObjectsPerLayer(Map<String, Integer> objectsPerLayer) {
+        this.objectsPerLayer = Collections.unmodifiableMap(objectsPerLayer);
+    }
+
+    @Override
+    public Map<String, Integer> getObjectsPerLayer() {
+        return objectsPerLayer;
+    }
+
+    @Override
+    public int getTotalObjects() {
+        int total = 0;
+        for (int count : objectsPerLayer.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Registers an MXBean in the platform server on the registration thread, replacing the bean of a
+     * previous game with the same name. Monitoring is optional, so failures are ignored.
+     * @param name - object name of the bean
+     * @param bean - the bean
+     */
+    private static void register(String name, Object bean) {
+        REGISTRATION.execute(() -> registerNow(name, bean));
+    }
+
+    /**
+     * Registers an MXBean in the platform server, replacing a bean with the same name.
+     * @param name - object name of the bean
+     * @param bean - the bean
+     */
+    private static void registerNow(String name, Object bean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(bean, objectName);
+        } catch (JMException | SecurityException ignored) {
+            //the game runs the same without monitoring
+        }
+    }
+}
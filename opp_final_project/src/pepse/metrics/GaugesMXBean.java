@@ -0,0 +1,14 @@
+package pepse.metrics;
+
+import java.util.Map;
+
+/**
+ * The gauges of the game's subsystems, such as cache hits and pool sizes, as exported over JMX.
+ */
+public interface GaugesMXBean {
+
+    /**
+     * @return value of every gauge by name, as last sampled
+     */
+    Map<String, Double> getGauges();
+}
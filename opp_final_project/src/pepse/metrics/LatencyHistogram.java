@@ -0,0 +1,99 @@
+package pepse.metrics;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of durations in nanoseconds. Every power of two is split into 16 buckets of equal width, so a
+ * percentile is off by at most 1/16 of its value, while recording is a few shifts and never allocates.
+ * Thread-safe, so it can be read from a monitoring thread while the game thread records.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final double PERCENT = 100;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count = 0;
+    private long total = 0;
+    private long max = 0;
+
+    /**
+     * Adds a duration.
+     * @param nanos - the duration, negative values count as 0
+     */
+    public synchronized void record(long nanos) {
+        nanos = Math.max(0, nanos);
+        counts[bucketOf(nanos)]++;
+        count++;
+        total += nanos;
+        max = Math.max(max, nanos);
+    }
+
+    /**
+     * @param percentile - in [0, 100]
+     * @return the duration that the given percent of the recorded durations do not exceed, 0 if empty
+     */
+    public synchronized long percentile(double percentile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / PERCENT * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) return Math.min(upperBoundOf(bucket), max);
+        }
+        return max;
+    }
+
+    /**
+     * @return the longest recorded duration
+     */
+    public synchronized long getMax() {
+        return max;
+    }
+
+    /**
+     * @return the average recorded duration, 0 if empty
+     */
+    public synchronized double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * @return number of recorded durations
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * Forgets every recorded duration.
+     */
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    /**
+     * @param nanos - a non negative duration
+     * @return index of the bucket of the duration
+     */
+    private static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) nanos;
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (nanos >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * @param bucket - index of a bucket
+     * @return the largest duration in the bucket
+     */
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,59 @@
+package pepse.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a leaf that fell from its tree or grew back on it. Leaves change thousands of
+ * times a minute, so the event is disabled unless a recording enables it, and records no stack trace.
+ */
+@Name("pepse.Leaf")
+@Label("Leaf Life-Cycle")
+@Category({"PEPSE", "Leaves"})
+@Description("A leaf fell from its tree or grew back on it")
+@StackTrace(false)
+@Enabled(false)
+public class LeafEvent extends Event {
+    /** a leaf detached from its tree */
+    public static final String FALL = "fall";
+    /** a dead leaf grew back on its tree */
+    public static final String REGROW = "regrow";
+
+    /** FALL or REGROW */
+    @Label("Action")
+    public String action;
+
+    /** index of the leaf in its system */
+    @Label("Slot")
+    public int slot;
+
+    /** x coordinate of the leaf on its tree */
+    @Label("X")
+    public float x;
+
+    /** y coordinate of the leaf on its tree */
+    @Label("Y")
+    public float y;
+
+    /**
+     * Commits an event if a recording enabled it.
+     * @param action - FALL or REGROW
+     * @param slot - index of the leaf in its system
+     * @param x - x coordinate of the leaf on its tree
+     * @param y - y coordinate of the leaf on its tree
+     */
+    public static void record(String action, int slot, float x, float y) {
+        LeafEvent event = new LeafEvent();
+        if (!event.isEnabled()) return;
+        event.action = action;
+        event.slot = slot;
+        event.x = x;
+        event.y = y;
+        event.commit();
+    }
+}
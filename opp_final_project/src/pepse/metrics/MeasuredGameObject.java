@@ -0,0 +1,32 @@
+package pepse.metrics;
+
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+/**
+ * A GameObject whose updates, including the updates of its components, are measured in a section.
+ */
+public class MeasuredGameObject extends GameObject {
+    private final FrameMetrics.Section section;
+
+    /**
+     * constructor
+     * @param topLeftCorner - top left corner
+     * @param dimensions - size
+     * @param renderable - render
+     * @param section - receives the time of every update
+     */
+    public MeasuredGameObject(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
+                              FrameMetrics.Section section) {
+        super(topLeftCorner, dimensions, renderable);
+        this.section = section;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        long start = section.start();
+        super.update(deltaTime);
+        section.stop(start);
+    }
+}
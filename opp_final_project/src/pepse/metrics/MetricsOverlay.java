@@ -0,0 +1,143 @@
+package pepse.metrics;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.components.CoordinateSpace;
+import danogl.gui.UserInputListener;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.util.HudCounter;
+
+import java.awt.*;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shows the frame times of every section, the objects in every layer and the gauges over the game, in the HUD layer.
+ * Toggled with a key. The text is rebuilt a few times a second while it is shown, and not at all while it
+ * is hidden.
+ */
+public class MetricsOverlay extends GameObject {
+    private static final Vector2 TOP_LEFT_CORNER = Vector2.of(5, 50);
+    private static final Vector2 DIMENSIONS = Vector2.of(380, 500);
+    private static final float REFRESH_TIME = 0.5f;
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double MEDIAN = 50;
+    private static final double P99 = 99;
+    private static final String SECTION_FORMAT = "%-10s p50 %6.2f  p99 %6.2f  max %7.2f ms";
+    private static final String FIRST_FRAME_FORMAT = "first frame %.1f ms";
+    private static final String OBJECTS_FORMAT = "objects    %d";
+    private static final String LAYER_FORMAT = "  %-12s %d";
+    private static final String WHOLE_GAUGE_FORMAT = "%-20s %.0f";
+    private static final String GAUGE_FORMAT = "%-20s %.3f";
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final int LINE_HEIGHT = 14;
+    private static final Color TEXT_COLOR = Color.WHITE;
+    private static final Color BACKGROUND_COLOR = new Color(0, 0, 0, 150);
+
+    private final FrameMetrics metrics;
+    private final UserInputListener inputListener;
+    private final int toggleKey;
+    private String[] lines = new String[0];
+    private boolean visible = false;
+    private float sinceRefresh = 0;
+
+    /**
+     * constructor
+     * @param metrics - the metrics to show
+     * @param inputListener - input from user
+     * @param toggleKey - KeyEvent code of the key that shows and hides the overlay
+     */
+    public MetricsOverlay(FrameMetrics metrics, UserInputListener inputListener, int toggleKey) {
+        super(TOP_LEFT_CORNER, DIMENSIONS, null);
+        this.metrics = metrics;
+        this.inputListener = inputListener;
+        this.toggleKey = toggleKey;
+        renderer().setRenderable(new LinesRenderable());
+        setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+    }
+
+    /**
+     * create the overlay, hidden
+     * @param gameObjects - game objects
+     * @param metrics - the metrics to show
+     * @param inputListener - input from user
+     * @param toggleKey - KeyEvent code of the key that shows and hides the overlay
+     * @return the overlay
+     */
+    public static MetricsOverlay create(GameObjectCollection gameObjects, FrameMetrics metrics,
+                                        UserInputListener inputListener, int toggleKey) {
+        MetricsOverlay overlay = new MetricsOverlay(metrics, inputListener, toggleKey);
+        gameObjects.addGameObject(overlay, HudCounter.HUD_LAYER);
+        return overlay;
+    }
+
+    /**
+     * Toggles the overlay, and refreshes its text while it is shown.
+     * @param deltaTime - time since the last frame
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        if (inputListener.wasKeyReleasedThisFrame(toggleKey)) {
+            visible = !visible;
+            sinceRefresh = REFRESH_TIME;
+        }
+        if (!visible) return;
+        sinceRefresh += deltaTime;
+        if (sinceRefresh >= REFRESH_TIME) {
+            sinceRefresh = 0;
+            lines = buildLines();
+        }
+    }
+
+    /**
+     * @return the text of the overlay, one line per section, then the startup time, the object counts and
+     * the gauges
+     */
+    private String[] buildLines() {
+        List<FrameMetrics.Section> sections = metrics.getSections();
+        Map<String, Integer> objects = metrics.getObjectsPerLayer();
+        Map<String, Double> gauges = metrics.getGauges();
+        String[] text = new String[sections.size() + 2 + objects.size() + gauges.size()];
+        for (int i = 0; i < sections.size(); i++) {
+            LatencyHistogram histogram = sections.get(i).getHistogram();
+            text[i] = String.format(SECTION_FORMAT, sections.get(i).getName(),
+                    histogram.percentile(MEDIAN) / NANOS_PER_MILLI, histogram.percentile(P99) / NANOS_PER_MILLI,
+                    histogram.getMax() / NANOS_PER_MILLI);
+        }
+        int line = sections.size();
+        text[line++] = String.format(FIRST_FRAME_FORMAT, metrics.getTimeToFirstFrameMillis());
+        text[line++] = String.format(OBJECTS_FORMAT, metrics.getTotalObjects());
+        for (Map.Entry<String, Integer> layer : objects.entrySet()) {
+            text[line++] = String.format(LAYER_FORMAT, layer.getKey(), layer.getValue());
+        }
+        for (Map.Entry<String, Double> gauge : gauges.entrySet()) {
+            double value = gauge.getValue();
+            text[line++] = String.format(value == Math.rint(value) ? WHOLE_GAUGE_FORMAT : GAUGE_FORMAT,
+                    gauge.getKey(), value);
+        }
+        return text;
+    }
+
+    /**
+     * Draws the lines of the overlay on a translucent background.
+     */
+    private class LinesRenderable implements Renderable {
+        @Override
+        public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+                           double degreesCounterClockwise, boolean isFlippedHorizontally,
+                           boolean isFlippedVertically, double opaqueness) {
+            if (!visible) return;
+            int x = (int) topLeftCorner.x();
+            int y = (int) topLeftCorner.y();
+            g.setColor(BACKGROUND_COLOR);
+            g.fillRect(x, y, (int) dimensions.x(), (lines.length + 1) * LINE_HEIGHT);
+            g.setFont(FONT);
+            g.setColor(TEXT_COLOR);
+            for (int i = 0; i < lines.length; i++) {
+                g.drawString(lines[i], x + LINE_HEIGHT / 2, y + (i + 1) * LINE_HEIGHT);
+            }
+        }
+    }
+}
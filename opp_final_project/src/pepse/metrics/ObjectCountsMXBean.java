@@ -0,0 +1,19 @@
+package pepse.metrics;
+
+import java.util.Map;
+
+/**
+ * The live objects of the game, as exported over JMX.
+ */
+public interface ObjectCountsMXBean {
+
+    /**
+     * @return number of objects by layer name, as last sampled
+     */
+    Map<String, Integer> getObjectsPerLayer();
+
+    /**
+     * @return number of objects in all the layers, as last sampled
+     */
+    int getTotalObjects();
+}
@@ -0,0 +1,37 @@
+package pepse.metrics;
+
+/**
+ * The frame times of a subsystem, as exported over JMX.
+ */
+public interface SectionMXBean {
+
+    /**
+     * @return number of frames measured
+     */
+    long getFrameCount();
+
+    /**
+     * @return median time per frame, in milliseconds
+     */
+    double getP50Millis();
+
+    /**
+     * @return 99th percentile of the time per frame, in milliseconds
+     */
+    double getP99Millis();
+
+    /**
+     * @return longest time in a single frame, in milliseconds
+     */
+    double getMaxMillis();
+
+    /**
+     * @return average time per frame, in milliseconds
+     */
+    double getMeanMillis();
+
+    /**
+     * Forgets all the measured frames.
+     */
+    void reset();
+}
@@ -0,0 +1,13 @@
+package pepse.metrics;
+
+/**
+ * The startup of the game, as exported over JMX.
+ */
+public interface StartupMXBean {
+
+    /**
+     * @return time from the start of initializeGame to the end of the first frame's update, in
+     * milliseconds, or -1 before the first frame
+     */
+    double getTimeToFirstFrameMillis();
+}
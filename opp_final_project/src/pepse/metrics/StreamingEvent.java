@@ -0,0 +1,29 @@
+package pepse.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of the camera crossing into another chunk, which loads and unloads chunks. Its
+ * duration is the time the streaming took, including the generation and eviction it triggered.
+ */
+@Name("pepse.Streaming")
+@Label("Streaming Threshold Crossed")
+@Category({"PEPSE", "World"})
+@Description("The camera moved to another chunk and the world was streamed around it")
+public class StreamingEvent extends Event {
+    /** x coordinate of the camera center */
+    @Label("Focus X")
+    public float focusX;
+
+    /** index of the chunk the camera moved to */
+    @Label("Chunk")
+    public int chunk;
+
+    /** number of chunks loaded after the streaming */
+    @Label("Loaded Chunks")
+    public int loadedChunks;
+}
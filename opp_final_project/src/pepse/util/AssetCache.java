@@ -0,0 +1,90 @@
+package pepse.util;
+
+import danogl.gui.ImageReader;
+import danogl.gui.WindowController;
+import danogl.gui.rendering.ImageRenderable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Decodes every image once and shares it between all the objects that draw it. The sprites of the game are
+ * preloaded in parallel at startup, so creating an object later costs no disk access or image decoding.
+ * Images are read with a transparent background, as all the sprites are.
+ * An ImageReader keeps state between the steps of a read, so every decoding thread uses its own reader.
+ */
+public class AssetCache {
+    private final WindowController windowController;
+    private final Map<String, ImageRenderable> images = new ConcurrentHashMap<>();
+    private final Map<List<String>, ImageRenderable[]> frames = new ConcurrentHashMap<>();
+
+    /**
+     * constructor
+     * @param windowController - reports images that fail to load
+     */
+    public AssetCache(WindowController windowController) {
+        this.windowController = windowController;
+    }
+
+    /**
+     * Decodes all the images of the given sprite sets that are not cached yet on a background thread, for
+     * sprites that are not needed right away. An image that is asked for before its turn is decoded on the
+     * spot, so nothing waits for the whole batch.
+     * @param spriteSets - paths of the images of every sprite set
+     */
+    public void preloadInBackground(String[]... spriteSets) {
+        Thread thread = new Thread(() -> {
+            for (String[] spriteSet : spriteSets) {
+                for (String path : spriteSet) {
+                    image(path);
+                }
+            }
+        }, "asset-preload");
+        thread.setDaemon(true); //never keep the game alive after the window closes
+        thread.start();
+    }
+
+    /**
+     * Decodes all the images of the given sprite sets that are not cached yet, in parallel, and waits for
+     * them.
+     * @param spriteSets - paths of the images of every sprite set
+     */
+    public void preload(String[]... spriteSets) {
+        Map<String, ImageRenderable> decoded = Arrays.stream(spriteSets)
+                .flatMap(Arrays::stream)
+                .distinct()
+                .filter(path -> !images.containsKey(path))
+                .parallel()
+                .collect(Collectors.toConcurrentMap(path -> path, this::decode));
+        images.putAll(decoded);
+    }
+
+    /**
+     * @param path of the image
+     * @return the shared image, decoded now if it was not preloaded
+     */
+    public ImageRenderable image(String path) {
+        return images.computeIfAbsent(path, this::decode);
+    }
+
+    /**
+     * @param paths of the frames of an animation, in order
+     * @return the shared array of the frames. It must not be modified.
+     */
+    public ImageRenderable[] frames(String... paths) {
+        return frames.computeIfAbsent(Arrays.asList(paths),
+                key -> key.stream().map(this::image).toArray(ImageRenderable[]::new));
+    }
+
+    /**
+     * Reads an image from the disk.
+     * @param path of the image
+     * @return the decoded image
+     */
+    private ImageRenderable decode(String path) {
+        return new ImageReader(windowController).readImage(path, true);
+    }
+}
@@ -0,0 +1,79 @@
+package pepse.util;
+
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
+
+import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A fixed set of colors sampled around a base color, each with a shared RectangleRenderable.
+ * Objects that get their color from the same palette share the Color and Renderable instances instead of
+ * allocating their own. Immutable once created, and every random pick draws from the caller's own generator,
+ * so it can be used from any thread without contention.
+ */
+public final class ColorPalette {
+    private final Color[] colors;
+    private final Map<Color, Renderable> renderables = new HashMap<>();
+    private final Map<Color, Integer> indices = new HashMap<>();
+
+    /**
+     * constructor
+     * @param baseColor - the color to sample around
+     * @param colorDelta - the maximal difference (per channel) between a sample and the base color
+     * @param size - number of colors in the palette
+     */
+    ColorPalette(Color baseColor, int colorDelta, int size) {
+        colors = new Color[size];
+        for (int i = 0; i < size; i++) {
+            colors[i] = ColorSupplier.approximateColor(baseColor, colorDelta);
+            renderables.computeIfAbsent(colors[i], RectangleRenderable::new);
+            indices.putIfAbsent(colors[i], i);
+        }
+    }
+
+    /**
+     * @param random - the generator to draw from, so the color can be reproduced from its seed
+     * @return a random color of the palette
+     */
+    public Color randomColor(Random random) {
+        return colors[random.nextInt(colors.length)];
+    }
+
+    /**
+     * @param color - a color, usually one of the palette
+     * @return the shared renderable of the color, or a new one if the color is not in the palette
+     */
+    public Renderable renderableOf(Color color) {
+        Renderable renderable = renderables.get(color);
+        return renderable != null ? renderable : new RectangleRenderable(color);
+    }
+
+    /**
+     * @param color - a color of the palette
+     * @return index of the color in the palette, to be stored instead of the color
+     * @throws IllegalArgumentException if the color is not in the palette
+     */
+    public int indexOf(Color color) {
+        Integer index = indices.get(color);
+        if (index == null) throw new IllegalArgumentException("color is not in the palette: " + color);
+        return index;
+    }
+
+    /**
+     * @param index - in [0, size)
+     * @return the color at the index
+     */
+    public Color colorAt(int index) {
+        return colors[index];
+    }
+
+    /**
+     * @return number of colors in the palette
+     */
+    public int size() {
+        return colors.length;
+    }
+}
@@ -1,7 +1,9 @@
 package pepse.util;
 
 import java.awt.*;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Provides procedurally-generated colors around a pivot.
@@ -9,7 +11,10 @@ import java.util.Random;
  */
 public final class ColorSupplier {
     private static final int DEFAULT_COLOR_DELTA = 10;
+    private static final int PALETTE_SIZE = 64;
+    private static final int DELTA_BITS = 32;
     private final static Random random = new Random();
+    private static final Map<Long, ColorPalette> palettes = new ConcurrentHashMap<>();
 
     /**
      * Returns a color similar to baseColor, with a default delta.
@@ -36,6 +41,29 @@ public final class ColorSupplier {
                 randomChannelInRange(baseColor.getBlue()-colorDelta, baseColor.getBlue()+colorDelta));
     }
 
+    /**
+     * Returns the shared palette of colors similar to baseColor, with a default delta.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @return A palette of colors similar to baseColor, created on the first call.
+     */
+    public static ColorPalette palette(Color baseColor) {
+        return palette(baseColor, DEFAULT_COLOR_DELTA);
+    }
+
+    /**
+     * Returns the shared palette of colors similar to baseColor, with a difference of at most colorDelta.
+     * Every base color and delta get a single palette of a fixed size.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param colorDelta The maximal difference (per channel) between a palette color and the base color.
+     * @return A palette of colors similar to baseColor, created on the first call.
+     */
+    public static ColorPalette palette(Color baseColor, int colorDelta) {
+        long key = ((long) baseColor.getRGB() << DELTA_BITS) | colorDelta;
+        return palettes.computeIfAbsent(key, k -> new ColorPalette(baseColor, colorDelta, PALETTE_SIZE));
+    }
+
     /**
      * This method generates a random value for a color channel within the given range [min, max].
      *
@@ -1,14 +1,12 @@
 package pepse.util;
 
-import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
-import danogl.collisions.Layer;
-import danogl.components.CoordinateSpace;
-import danogl.gui.rendering.Renderable;
-import danogl.gui.rendering.TextRenderable;
 import danogl.util.Vector2;
 
-public class EnergyCounter extends GameObject{
+/**
+ * The energy of the avatar, displayed in the HUD.
+ */
+public class EnergyCounter extends HudCounter{
 
     private static final Vector2 DIMENSIONS_ENERGY_COUNTER = new Vector2(20, 40);
     private static final Vector2 TOP_LEFT_CORNER_ENERGY_COUNTER = Vector2.ONES.mult(5);
@@ -22,10 +20,10 @@ public class EnergyCounter extends GameObject{
      * constructor
      * @param topLeftCorner - top left corner
      * @param dimensions - size
-     * @param renderable - text render
      */
-    public EnergyCounter(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
-        super(topLeftCorner, dimensions, renderable);
+    public EnergyCounter(Vector2 topLeftCorner, Vector2 dimensions) {
+        super(topLeftCorner, dimensions, ENERGY_COUNTER_STR, MIN_ENERGY_VALUE, MAX_ENERGY_VALUE,
+                (int) energyCounter);
     }
 
     /**
@@ -34,10 +32,8 @@ public class EnergyCounter extends GameObject{
      * @return energy counter
      */
     public static EnergyCounter create(GameObjectCollection gameObjects){
-        EnergyCounter energy = new EnergyCounter(TOP_LEFT_CORNER_ENERGY_COUNTER, DIMENSIONS_ENERGY_COUNTER,
-                new TextRenderable(String.format(ENERGY_COUNTER_STR, (int)energyCounter)));
-        energy.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
-        gameObjects.addGameObject(energy, Layer.FOREGROUND);
+        EnergyCounter energy = new EnergyCounter(TOP_LEFT_CORNER_ENERGY_COUNTER, DIMENSIONS_ENERGY_COUNTER);
+        energy.addTo(gameObjects);
         return energy;
     }
 
@@ -66,11 +62,10 @@ public class EnergyCounter extends GameObject{
     }
 
     /**
-     * set render
+     * set render - the displayed text only changes when the integer part of the energy does
      */
     private void changeRender(){
-        renderer().setRenderable(new TextRenderable(String.format(
-                ENERGY_COUNTER_STR, (int)energyCounter)));
+        setValue((int) energyCounter);
     }
 
 }
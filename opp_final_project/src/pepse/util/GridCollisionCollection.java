@@ -0,0 +1,137 @@
+package pepse.util;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A collection of game objects that collides moving objects with static layers through a SpatialHash,
+ * instead of testing every pair of objects of the two layers like danogl's layer collisions do.
+ * The objects of a static layer that block intersections (such as ground blocks and collidable trunks) are
+ * indexed in a grid when they are added, and every frame each object of a moving layer is only tested
+ * against the objects in the cells it overlaps, and against the ones it touched last frame so it is told
+ * when it leaves them. The tests go through danogl's own pair handling, so the collision callbacks and the
+ * intersection prevention are the same as with layer collisions.
+ * The two layers of a grid pair should not also collide as layers.
+ */
+public class GridCollisionCollection extends GameObjectCollection {
+    private static final float QUERY_MARGIN = 1; //touching objects collide too
+
+    /**
+     * An object of a moving layer, with the grids it is collided with and the objects it touches.
+     */
+    private static class Mover {
+        private final List<SpatialHash> grids;
+        private List<GameObject> contacts = new ArrayList<>();
+
+        /**
+         * constructor
+         * @param grids - the grids of the static layers the object collides with
+         */
+        private Mover(List<SpatialHash> grids) {
+            this.grids = grids;
+        }
+    }
+
+    private final float cellSize;
+    private final Map<Integer, SpatialHash> staticLayers = new HashMap<>();
+    private final Map<Integer, List<SpatialHash>> movingLayers = new HashMap<>();
+    private final Map<GameObject, Mover> movers = new LinkedHashMap<>();
+    private final List<GameObject> candidates = new ArrayList<>();
+
+    /**
+     * constructor
+     * @param cellSize - width and height of a cell of the grids
+     */
+    public GridCollisionCollection(float cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Makes the objects of a moving layer collide with the objects of a static layer through a grid. Must be
+     * called before objects are added to either layer.
+     * @param movingLayer - layer of the objects that move, such as the avatar
+     * @param staticLayer - layer of objects that never move while they are in the game
+     */
+    public void collideThroughGrid(int movingLayer, int staticLayer) {
+        SpatialHash grid = staticLayers.computeIfAbsent(staticLayer, layer -> new SpatialHash(cellSize));
+        movingLayers.computeIfAbsent(movingLayer, layer -> new ArrayList<>()).add(grid);
+    }
+
+    /**
+     * Adds an object, and indexes it if its layer is static and it blocks intersections.
+     * @param object - the object
+     * @param layer - its layer
+     */
+    @Override
+    public void addGameObject(GameObject object, int layer) {
+        super.addGameObject(object, layer);
+        SpatialHash grid = staticLayers.get(layer);
+        if (grid != null && object.physics().directionFromWhichIntersectionsArePrevented() != null) {
+            grid.add(object);
+        }
+        List<SpatialHash> grids = movingLayers.get(layer);
+        if (grids != null) {
+            movers.put(object, new Mover(grids));
+        }
+    }
+
+    /**
+     * Removes an object, and forgets it in the grids.
+     * @param object - the object
+     * @param layer - its layer
+     * @return true if the object was in the layer
+     */
+    @Override
+    public boolean removeGameObject(GameObject object, int layer) {
+        boolean removed = super.removeGameObject(object, layer);
+        SpatialHash grid = staticLayers.get(layer);
+        if (grid != null) {
+            grid.remove(object);
+            for (Mover mover : movers.values()) {
+                mover.contacts.remove(object); //danogl already forgot the pair
+            }
+        }
+        if (movingLayers.containsKey(layer)) {
+            movers.remove(object);
+        }
+        return removed;
+    }
+
+    /**
+     * Handles the layer collisions, then the collisions of the moving objects with the grids.
+     */
+    @Override
+    public void handleCollisions() {
+        super.handleCollisions();
+        for (Map.Entry<GameObject, Mover> entry : movers.entrySet()) {
+            GameObject object = entry.getKey();
+            Mover mover = entry.getValue();
+            Vector2 topLeftCorner = object.getTopLeftCorner();
+            Vector2 bottomRightCorner = topLeftCorner.add(object.getDimensions());
+            candidates.clear();
+            for (SpatialHash grid : mover.grids) {
+                grid.query(topLeftCorner.x() - QUERY_MARGIN, topLeftCorner.y() - QUERY_MARGIN,
+                        bottomRightCorner.x() + QUERY_MARGIN, bottomRightCorner.y() + QUERY_MARGIN, candidates);
+            }
+            for (GameObject contact : mover.contacts) {
+                if (!candidates.contains(contact)) {
+                    candidates.add(contact); //tested again, so it gets its collision exit
+                }
+            }
+            List<GameObject> contacts = new ArrayList<>(candidates.size());
+            for (GameObject candidate : candidates) {
+                if (handlePair(object, candidate)) {
+                    contacts.add(candidate);
+                }
+            }
+            mover.contacts = contacts;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package pepse.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of a noise function sampled at fixed-width columns. Columns are computed and stored in
+ * pages of consecutive columns (pages can be aligned with the world chunks), and the least recently used
+ * page is dropped when the cache is full. Points that are not on a column edge are passed through to the
+ * noise function. Thread-safe, so planning threads and the game thread can share it.
+ */
+public class HeightmapCache implements NoiseFunction {
+    private static final float LOAD_FACTOR = 0.75f;
+    private final NoiseFunction noise;
+    private final int columnWidth;
+    private final int pageColumns;
+    private final Map<Integer, float[]> pages;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * constructor
+     * @param noise - the function to cache
+     * @param columnWidth - distance between two consecutive columns
+     * @param pageColumns - number of columns computed and evicted together
+     * @param maxPages - maximal number of pages kept
+     */
+    public HeightmapCache(NoiseFunction noise, int columnWidth, int pageColumns, int maxPages) {
+        this.noise = noise;
+        this.columnWidth = columnWidth;
+        this.pageColumns = pageColumns;
+        //access order, so the eldest entry is the least recently used page
+        this.pages = new LinkedHashMap<Integer, float[]>(maxPages, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, float[]> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    /**
+     * @param x coordinate
+     * @return value of the noise at x, from the cache if x is a column edge
+     */
+    @Override
+    public float valueAt(float x) {
+        int column = (int) Math.floor(x / columnWidth);
+        if (column * (float) columnWidth != x) return noise.valueAt(x);
+        return heightAtColumn(column);
+    }
+
+    /**
+     * Fills consecutive columns from the cache, or evaluates the noise directly if the points are not
+     * column edges.
+     */
+    @Override
+    public void fill(float[] destination, float startX, float step) {
+        int firstColumn = (int) Math.floor(startX / columnWidth);
+        if (step != columnWidth || firstColumn * (float) columnWidth != startX) {
+            noise.fill(destination, startX, step);
+            return;
+        }
+        synchronized (this) {
+            int i = 0;
+            while (i < destination.length) {
+                int column = firstColumn + i;
+                int page = Math.floorDiv(column, pageColumns);
+                int offset = column - page * pageColumns;
+                int count = Math.min(pageColumns - offset, destination.length - i);
+                System.arraycopy(page(page), offset, destination, i, count);
+                i += count;
+            }
+        }
+    }
+
+    /**
+     * @param column index of the column, column i starts at x = i * columnWidth
+     * @return value of the noise at the left edge of the column
+     */
+    public synchronized float heightAtColumn(int column) {
+        int page = Math.floorDiv(column, pageColumns);
+        return page(page)[column - page * pageColumns];
+    }
+
+    /**
+     * @return number of page lookups that were found in the cache
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of page lookups that had to evaluate the noise
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return number of pages currently cached
+     */
+    public synchronized int getPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Returns a page, computing it in one batch if it is not cached.
+     * @param page index of the page
+     * @return the values of the columns of the page
+     */
+    private float[] page(int page) {
+        float[] values = pages.get(page);
+        if (values != null) {
+            hits++;
+            return values;
+        }
+        misses++;
+        values = new float[pageColumns];
+        noise.fill(values, (float) page * pageColumns * columnWidth, columnWidth);
+        pages.put(page, values);
+        return values;
+    }
+}
@@ -0,0 +1,95 @@
+package pepse.util;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.components.CoordinateSpace;
+import danogl.gui.rendering.TextRenderable;
+import danogl.util.Vector2;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A number drawn on the screen, in the HUD layer. The text of every value is created once and shared by all
+ * the counters with the same format and range, and the counter only swaps its renderable when the displayed
+ * value changes, so setting the value every frame does not allocate.
+ */
+public class HudCounter extends GameObject {
+    /** Layer of everything drawn over the world in camera coordinates. */
+    public static final int HUD_LAYER = Layer.FOREGROUND;
+    private static final String KEY_SEPARATOR = ":";
+    private static final Map<String, TextRenderable[]> texts = new HashMap<>();
+
+    private final String format;
+    private final int minValue;
+    private final TextRenderable[] valueTexts;
+    private int value;
+
+    /**
+     * constructor
+     * @param topLeftCorner - top left corner on the screen
+     * @param dimensions - size
+     * @param format - format of the text, with a single %d for the value
+     * @param minValue - the smallest value that can be displayed
+     * @param maxValue - the largest value that can be displayed
+     * @param value - initial value
+     */
+    public HudCounter(Vector2 topLeftCorner, Vector2 dimensions, String format,
+                      int minValue, int maxValue, int value) {
+        super(topLeftCorner, dimensions, null);
+        this.format = format;
+        this.minValue = minValue;
+        this.valueTexts = texts.computeIfAbsent(minValue + KEY_SEPARATOR + maxValue + KEY_SEPARATOR + format,
+                key -> new TextRenderable[maxValue - minValue + 1]);
+        this.value = clamp(value);
+        renderer().setRenderable(textOf(this.value));
+        setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+    }
+
+    /**
+     * Adds the counter to the HUD layer.
+     * @param gameObjects - game objects
+     */
+    public void addTo(GameObjectCollection gameObjects) {
+        gameObjects.addGameObject(this, HUD_LAYER);
+    }
+
+    /**
+     * Removes the counter from the HUD layer.
+     * @param gameObjects - game objects
+     */
+    public void removeFrom(GameObjectCollection gameObjects) {
+        gameObjects.removeGameObject(this, HUD_LAYER);
+    }
+
+    /**
+     * Displays a value, clamped to the range of the counter. Does nothing if the value is already displayed.
+     * @param value - new value
+     */
+    public void setValue(int value) {
+        value = clamp(value);
+        if (value == this.value) return;
+        this.value = value;
+        renderer().setRenderable(textOf(value));
+    }
+
+    /**
+     * @param value - a value in the range of the counter
+     * @return the shared text of the value, created on the first call
+     */
+    private TextRenderable textOf(int value) {
+        int index = value - minValue;
+        if (valueTexts[index] == null) {
+            valueTexts[index] = new TextRenderable(String.format(format, value));
+        }
+        return valueTexts[index];
+    }
+
+    /**
+     * @return value clamped to the range of the counter
+     */
+    private int clamp(int value) {
+        return Math.max(minValue, Math.min(value, minValue + valueTexts.length - 1));
+    }
+}
@@ -22,6 +22,18 @@ public class Noise {
      * @return smooth noise function
      */
     public static Function<Float, Float> generateNoiseFunc(int seed, float dimY, float dimX) {
+        NoiseFunction noise = generateNoise(seed, dimY, dimX);
+        return noise::valueAt;
+    }
+
+    /**
+     * Same function as generateNoiseFunc, without boxing.
+     * @param seed For Random generator.
+     * @param dimY Altitude for trigonometric functions
+     * @param dimX
+     * @return smooth noise function
+     */
+    public static NoiseFunction generateNoise(int seed, float dimY, float dimX) {
 
         Random rand = new Random(seed);
         //array of parameters to scala and factor of sin function
@@ -43,7 +55,48 @@ public class Noise {
 
         float totalFactor = pFactorTotal[rand.nextInt(pFactorTotal.length)] * rangeFactor;
 
-        return (Float x) -> NORMALIZE_PARAMETER * dimY + totalFactor * (float) (factor1 * Math.sin(scala1 * x)
-            + factorE * Math.sin(scalaE * Math.E * x) + factorPi * Math.sin(scalaPi * Math.PI * x));
+        return new SumOfSines(NORMALIZE_PARAMETER * dimY, totalFactor, factor1, scala1, factorE, scalaE,
+            factorPi, scalaPi);
+    }
+
+    /**
+     * The noise function: a sum of three sines, with scales involving 1, e and pi.
+     */
+    private static final class SumOfSines implements NoiseFunction {
+        private final float base;
+        private final float totalFactor;
+        private final float factor1;
+        private final float scala1;
+        private final float factorE;
+        private final float scalaE;
+        private final float factorPi;
+        private final float scalaPi;
+
+        private SumOfSines(float base, float totalFactor, float factor1, float scala1, float factorE,
+                           float scalaE, float factorPi, float scalaPi) {
+            this.base = base;
+            this.totalFactor = totalFactor;
+            this.factor1 = factor1;
+            this.scala1 = scala1;
+            this.factorE = factorE;
+            this.scalaE = scalaE;
+            this.factorPi = factorPi;
+            this.scalaPi = scalaPi;
+        }
+
+        @Override
+        public float valueAt(float x) {
+            return base + totalFactor * (float) (factor1 * Math.sin(scala1 * x)
+                + factorE * Math.sin(scalaE * Math.E * x) + factorPi * Math.sin(scalaPi * Math.PI * x));
+        }
+
+        @Override
+        public void fill(float[] destination, float startX, float step) {
+            for (int i = 0; i < destination.length; i++) {
+                float x = startX + i * step;
+                destination[i] = base + totalFactor * (float) (factor1 * Math.sin(scala1 * x)
+                    + factorE * Math.sin(scalaE * Math.E * x) + factorPi * Math.sin(scalaPi * Math.PI * x));
+            }
+        }
     }
 }
@@ -0,0 +1,26 @@
+package pepse.util;
+
+/**
+ * A one dimensional noise function over primitive floats, so evaluating it never boxes.
+ */
+@FunctionalInterface
+public interface NoiseFunction {
+
+    /**
+     * @param x coordinate
+     * @return value of the function at x
+     */
+    float valueAt(float x);
+
+    /**
+     * Evaluates the function at evenly spaced points, destination[i] = valueAt(startX + i * step).
+     * @param destination - array to fill, its length is the number of points
+     * @param startX - the first x coordinate
+     * @param step - distance between two consecutive points
+     */
+    default void fill(float[] destination, float startX, float step) {
+        for (int i = 0; i < destination.length; i++) {
+            destination[i] = valueAt(startX + i * step);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package pepse.util;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A uniform grid over objects that do not move, such as the ground blocks and the tree trunks. Every object
+ * is listed in each cell its bounds overlap, so finding the objects near a box only looks at the few cells
+ * the box overlaps, however many objects the grid holds. Only empty cells are dropped, so the grid's size
+ * follows the objects in it.
+ * An object must not move or change size while it is in the grid.
+ */
+public class SpatialHash {
+    private final float cellSize;
+    private final Map<Long, List<GameObject>> cells = new HashMap<>();
+
+    /**
+     * constructor
+     * @param cellSize - width and height of a cell, a few times the size of the objects works best
+     */
+    public SpatialHash(float cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Adds an object in the cells of its current bounds.
+     * @param object - an object that will not move while it is in the grid
+     */
+    public void add(GameObject object) {
+        Vector2 topLeftCorner = object.getTopLeftCorner();
+        Vector2 dimensions = object.getDimensions();
+        int minColumn = cellOf(topLeftCorner.x());
+        int maxColumn = cellOf(topLeftCorner.x() + dimensions.x());
+        int minRow = cellOf(topLeftCorner.y());
+        int maxRow = cellOf(topLeftCorner.y() + dimensions.y());
+        for (int column = minColumn; column <= maxColumn; column++) {
+            for (int row = minRow; row <= maxRow; row++) {
+                cells.computeIfAbsent(key(column, row), key -> new ArrayList<>()).add(object);
+            }
+        }
+    }
+
+    /**
+     * Removes an object from the cells of its bounds. Does nothing if the object is not in the grid.
+     * @param object - an object that did not move since it was added
+     */
+    public void remove(GameObject object) {
+        Vector2 topLeftCorner = object.getTopLeftCorner();
+        Vector2 dimensions = object.getDimensions();
+        int minColumn = cellOf(topLeftCorner.x());
+        int maxColumn = cellOf(topLeftCorner.x() + dimensions.x());
+        int minRow = cellOf(topLeftCorner.y());
+        int maxRow = cellOf(topLeftCorner.y() + dimensions.y());
+        for (int column = minColumn; column <= maxColumn; column++) {
+            for (int row = minRow; row <= maxRow; row++) {
+                Long key = key(column, row);
+                List<GameObject> cell = cells.get(key);
+                if (cell == null || !cell.remove(object)) continue;
+                if (cell.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the objects whose cells overlap a box. An object is found at most once, and may be a little
+     * outside the box, so the caller still tests each one exactly.
+     * @param minX - left of the box
+     * @param minY - top of the box
+     * @param maxX - right of the box
+     * @param maxY - bottom of the box
+     * @param result - receives the objects, and is not cleared first
+     */
+    public void query(float minX, float minY, float maxX, float maxY, List<GameObject> result) {
+        int first = result.size();
+        for (int column = cellOf(minX); column <= cellOf(maxX); column++) {
+            for (int row = cellOf(minY); row <= cellOf(maxY); row++) {
+                List<GameObject> cell = cells.get(key(column, row));
+                if (cell == null) continue;
+                for (int i = 0; i < cell.size(); i++) {
+                    //an object in several cells is found in each of them, and a query spans very few objects
+                    GameObject object = cell.get(i);
+                    if (result.subList(first, result.size()).indexOf(object) < 0) {
+                        result.add(object);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param coordinate - x or y coordinate
+     * @return index of the column or row of cells that contains the coordinate
+     */
+    private int cellOf(float coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    /**
+     * @param column - column of a cell
+     * @param row - row of a cell
+     * @return key of the cell in the map
+     */
+    private static long key(int column, int row) {
+        return (long) column << Integer.SIZE | Integer.toUnsignedLong(row);
+    }
+}
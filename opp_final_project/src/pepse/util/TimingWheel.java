@@ -0,0 +1,224 @@
+package pepse.util;
+
+import java.util.Arrays;
+
+/**
+ * A hierarchical hashed timing wheel. Deadlines are rounded up to whole ticks and hashed into the bucket
+ * of their tick, so advancing the wheel only visits the buckets of the ticks that passed, and every timer
+ * in such a bucket is due. Deadlines beyond one turn of the wheel wait in a second, coarser wheel whose
+ * buckets span a whole turn, and are moved into the fine wheel when their turn begins.
+ * Timers are kept in primitive arrays and reused, so scheduling does not allocate.
+ */
+public class TimingWheel {
+
+    /**
+     * Receives the timers that expire.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Called when a timer expires.
+         * @param payload - the value the timer was scheduled with
+         */
+        void onExpire(int payload);
+    }
+
+    /** A handle that never refers to a pending timer. */
+    public static final long NO_TIMER = -1;
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int GROWTH_FACTOR = 2;
+    private static final int INDEX_BITS = 32;
+    private static final long INDEX_MASK = 0xFFFFFFFFL;
+
+    private final double tickDuration;
+    private final int wheelBits;
+    private final int wheelMask;
+    //buckets [0, wheelSize) are the fine wheel, [wheelSize, 2 * wheelSize) the coarse one
+    private final int[] heads;
+    private double elapsed = 0;
+    private long currentTick = 0;
+
+    //per timer state, indexed by timer
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int[] prev = new int[INITIAL_CAPACITY];
+    private int[] bucket = new int[INITIAL_CAPACITY];
+    private long[] deadline = new long[INITIAL_CAPACITY];
+    private int[] payloads = new int[INITIAL_CAPACITY];
+    private int[] generation = new int[INITIAL_CAPACITY];
+    private Listener[] listeners = new Listener[INITIAL_CAPACITY];
+    private int freeHead = NONE;
+    private int timerCount = 0;
+    private int pending = 0;
+
+    /**
+     * constructor
+     * @param tickDuration - time of a tick, the resolution of the deadlines
+     * @param wheelBits - log2 of the number of buckets per wheel. One turn of the fine wheel lasts
+     *                  2^wheelBits ticks.
+     */
+    public TimingWheel(float tickDuration, int wheelBits) {
+        this.tickDuration = tickDuration;
+        this.wheelBits = wheelBits;
+        this.wheelMask = (1 << wheelBits) - 1;
+        this.heads = new int[2 << wheelBits];
+        Arrays.fill(heads, NONE);
+    }
+
+    /**
+     * Registers a timer.
+     * @param delay - time from now until the timer expires, rounded up to a whole tick
+     * @param listener - notified when the timer expires
+     * @param payload - passed to the listener
+     * @return handle of the timer, for cancelling it
+     */
+    public long schedule(float delay, Listener listener, int payload) {
+        int timer = allocate();
+        deadline[timer] = currentTick + Math.max(1, (long) Math.ceil(delay / tickDuration));
+        payloads[timer] = payload;
+        listeners[timer] = listener;
+        insert(timer);
+        pending++;
+        return ((long) generation[timer] << INDEX_BITS) | timer;
+    }
+
+    /**
+     * Cancels a pending timer.
+     * @param handle - returned by schedule
+     * @return true if the timer was pending, false if it already expired or was cancelled
+     */
+    public boolean cancel(long handle) {
+        if (handle == NO_TIMER) return false;
+        int timer = (int) (handle & INDEX_MASK);
+        if (timer >= timerCount || generation[timer] != (int) (handle >>> INDEX_BITS)
+                || listeners[timer] == null) {
+            return false;
+        }
+        unlink(timer);
+        release(timer);
+        return true;
+    }
+
+    /**
+     * @param handle - returned by schedule
+     * @return time until a pending timer expires, or 0 if it already expired or was cancelled
+     */
+    public float remaining(long handle) {
+        if (handle == NO_TIMER) return 0;
+        int timer = (int) (handle & INDEX_MASK);
+        if (timer >= timerCount || generation[timer] != (int) (handle >>> INDEX_BITS)
+                || listeners[timer] == null) {
+            return 0;
+        }
+        return (float) (deadline[timer] * tickDuration - elapsed);
+    }
+
+    /**
+     * Advances the time and notifies the listeners of every timer that expired, in deadline order.
+     * @param deltaTime - time since the last advance
+     */
+    public void advance(float deltaTime) {
+        elapsed += deltaTime;
+        long targetTick = (long) (elapsed / tickDuration);
+        while (currentTick < targetTick) {
+            currentTick++;
+            if ((currentTick & wheelMask) == 0) cascade();
+            int expired = (int) (currentTick & wheelMask);
+            //timers scheduled by the listeners are due in a later tick, so never land in this bucket
+            while (heads[expired] != NONE) {
+                int timer = heads[expired];
+                Listener listener = listeners[timer];
+                int payload = payloads[timer];
+                unlink(timer);
+                release(timer);
+                listener.onExpire(payload);
+            }
+        }
+    }
+
+    /**
+     * @return number of timers that did not expire and were not cancelled
+     */
+    public int pendingCount() {
+        return pending;
+    }
+
+    /**
+     * Moves the timers of the turn that begins now from the coarse wheel to the fine one. Timers that are
+     * more than a whole coarse turn away stay in their bucket.
+     */
+    private void cascade() {
+        long turn = currentTick >> wheelBits;
+        int coarse = (int) (turn & wheelMask) + wheelMask + 1;
+        int timer = heads[coarse];
+        while (timer != NONE) {
+            int following = next[timer];
+            if (deadline[timer] >> wheelBits == turn) {
+                unlink(timer);
+                insert(timer);
+            }
+            timer = following;
+        }
+    }
+
+    /**
+     * Puts a timer in the bucket of its deadline: the fine wheel if it is due in the current turn,
+     * otherwise the coarse wheel.
+     */
+    private void insert(int timer) {
+        long due = deadline[timer];
+        int target = due >> wheelBits == currentTick >> wheelBits
+                ? (int) (due & wheelMask)
+                : (int) ((due >> wheelBits) & wheelMask) + wheelMask + 1;
+        bucket[timer] = target;
+        prev[timer] = NONE;
+        next[timer] = heads[target];
+        if (heads[target] != NONE) prev[heads[target]] = timer;
+        heads[target] = timer;
+    }
+
+    /**
+     * Takes a timer out of its bucket.
+     */
+    private void unlink(int timer) {
+        if (prev[timer] != NONE) {
+            next[prev[timer]] = next[timer];
+        } else {
+            heads[bucket[timer]] = next[timer];
+        }
+        if (next[timer] != NONE) prev[next[timer]] = prev[timer];
+    }
+
+    /**
+     * @return index of an unused timer, growing the arrays if needed
+     */
+    private int allocate() {
+        if (freeHead != NONE) {
+            int timer = freeHead;
+            freeHead = next[timer];
+            return timer;
+        }
+        if (timerCount == next.length) {
+            int capacity = next.length * GROWTH_FACTOR;
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            bucket = Arrays.copyOf(bucket, capacity);
+            deadline = Arrays.copyOf(deadline, capacity);
+            payloads = Arrays.copyOf(payloads, capacity);
+            generation = Arrays.copyOf(generation, capacity);
+            listeners = Arrays.copyOf(listeners, capacity);
+        }
+        return timerCount++;
+    }
+
+    /**
+     * Returns a timer to the free list, invalidating its handles.
+     */
+    private void release(int timer) {
+        listeners[timer] = null;
+        generation[timer]++;
+        next[timer] = freeHead;
+        freeHead = timer;
+        pending--;
+    }
+}
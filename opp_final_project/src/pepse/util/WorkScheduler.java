@@ -0,0 +1,69 @@
+package pepse.util;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs small units of deferred work on the game thread, as many as fit in a time budget every frame.
+ * Every unit belongs to a position (such as the index of a chunk), and the units of the position nearest to
+ * the focus always run first, so what is close to the camera is ready before what is far from it. Units of
+ * the same position run in the order they were submitted.
+ * At least one unit runs every frame, so the work always progresses even when a unit exceeds the budget.
+ */
+public class WorkScheduler {
+    private final TreeMap<Integer, ArrayDeque<Runnable>> units = new TreeMap<>();
+    private final long budgetNanos;
+    private int pending = 0;
+
+    /**
+     * constructor
+     * @param budgetNanos - time the units may take every frame, in nanoseconds
+     */
+    public WorkScheduler(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Adds a unit of work.
+     * @param position - where the unit's work is, in the same units as the focus passed to run
+     * @param unit - the work, short enough to never cause a visible stall by itself
+     */
+    public void submit(int position, Runnable unit) {
+        units.computeIfAbsent(position, key -> new ArrayDeque<>()).add(unit);
+        pending++;
+    }
+
+    /**
+     * Runs the units nearest to the focus until the budget of the frame is spent.
+     * @param focus - the position the work is prioritized around
+     * @return number of units that ran
+     */
+    public int run(int focus) {
+        long start = System.nanoTime();
+        int ran = 0;
+        while (pending > 0 && (ran == 0 || System.nanoTime() - start < budgetNanos)) {
+            Map.Entry<Integer, ArrayDeque<Runnable>> nearest = nearest(focus);
+            Runnable unit = nearest.getValue().poll();
+            if (nearest.getValue().isEmpty()) {
+                units.remove(nearest.getKey());
+            }
+            pending--;
+            unit.run();
+            ran++;
+        }
+        return ran;
+    }
+
+    /**
+     * @param focus - a position
+     * @return the units of the position nearest to the focus, which are never empty
+     */
+    private Map.Entry<Integer, ArrayDeque<Runnable>> nearest(int focus) {
+        Map.Entry<Integer, ArrayDeque<Runnable>> below = units.floorEntry(focus);
+        Map.Entry<Integer, ArrayDeque<Runnable>> above = units.ceilingEntry(focus);
+        if (below == null) return above;
+        if (above == null) return below;
+        return (long) focus - below.getKey() <= (long) above.getKey() - focus ? below : above;
+    }
+}
@@ -4,10 +4,11 @@ import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.collisions.Layer;
 import danogl.components.GameObjectPhysics;
-import danogl.gui.ImageReader;
 import danogl.gui.UserInputListener;
 import danogl.gui.rendering.*;
 import danogl.util.Vector2;
+import pepse.metrics.FrameMetrics;
+import pepse.util.AssetCache;
 import pepse.util.EnergyCounter;
 
 import java.awt.*;
@@ -29,6 +30,13 @@ public class Avatar extends GameObject{
     private static final String SPONGEBOB_WALK_RIGHT_IMG_3_PATH = "pepse/assets/spongebobWalk/img3.png";
     private static final String SPONGEBOB_WALK_RIGHT_IMG_4_PATH = "pepse/assets/spongebobWalk/img4.png";
     private static final String SPONGEBOB_WALK_RIGHT_IMG_5_PATH = "pepse/assets/spongebobWalk/img5.png";
+    private static final String[] SPONGEBOB_WALK_RIGHT_PATHS = {SPONGEBOB_WALK_RIGHT_IMG_1_PATH,
+            SPONGEBOB_WALK_RIGHT_IMG_2_PATH, SPONGEBOB_WALK_RIGHT_IMG_3_PATH, SPONGEBOB_WALK_RIGHT_IMG_4_PATH,
+            SPONGEBOB_WALK_RIGHT_IMG_5_PATH};
+    /** Every image the avatar draws, to preload. */
+    public static final String[] SPRITE_PATHS = {SPONGEBOB_STAND_PATH, SPONGEBOB_WALK_RIGHT_IMG_1_PATH,
+            SPONGEBOB_WALK_RIGHT_IMG_2_PATH, SPONGEBOB_WALK_RIGHT_IMG_3_PATH, SPONGEBOB_WALK_RIGHT_IMG_4_PATH,
+            SPONGEBOB_WALK_RIGHT_IMG_5_PATH};
     protected static final float FACTOR_VELOCITY_DOWN = 0.7f;
     public static final String AVATAR_TAG = "avatar";
 
@@ -39,24 +47,38 @@ public class Avatar extends GameObject{
     protected final UserInputListener inputListener;
     protected EnergyCounter energyCounterNumeric;
     protected GameObjectCollection gameObjects;
-    private final ImageReader imageReader;
+    private final AssetCache assets;
     protected AnimationRenderable animation;
     protected ImageRenderable standAnimation;
     private boolean isMockAvatarInGame = false;
     private MockAvatar mockAvatar;
+    private FrameMetrics.Section updateMetrics = FrameMetrics.Section.DISABLED;
 
     /**
      * Create a new Avatar object.
      * @param pos - top left corner of avatar
      * @param inputListener - input from user
-     * @param imageReader - image reader
+     * @param assets - the shared images
      * @param gameObjects - game objects
      */
-    public Avatar(Vector2 pos, UserInputListener inputListener, ImageReader imageReader,
+    public Avatar(Vector2 pos, UserInputListener inputListener, AssetCache assets,
                   GameObjectCollection gameObjects) {
-        super(pos, Vector2.ONES.mult(AVATAR_SIZE),
-                imageReader.readImage(SPONGEBOB_STAND_PATH, true));
-        this.imageReader = imageReader;
+        this(pos, inputListener, assets, gameObjects, SPONGEBOB_STAND_PATH, SPONGEBOB_WALK_RIGHT_PATHS);
+    }
+
+    /**
+     * Create a new Avatar object that looks different.
+     * @param pos - top left corner of avatar
+     * @param inputListener - input from user
+     * @param assets - the shared images
+     * @param gameObjects - game objects
+     * @param standPath - image of the avatar standing
+     * @param walkPaths - frames of the avatar walking right
+     */
+    protected Avatar(Vector2 pos, UserInputListener inputListener, AssetCache assets,
+                     GameObjectCollection gameObjects, String standPath, String[] walkPaths) {
+        super(pos, Vector2.ONES.mult(AVATAR_SIZE), assets.image(standPath));
+        this.assets = assets;
         this.inputListener = inputListener;
         this.gameObjects = gameObjects;
         //set gravity
@@ -64,15 +86,9 @@ public class Avatar extends GameObject{
         transform().setAccelerationY(GRAVITY);
         //create energy counter
         energyCounterNumeric = EnergyCounter.create(gameObjects);
-        //set animation of the avatar
-        this.animation = new AnimationRenderable(new ImageRenderable[]{
-                this.imageReader.readImage(SPONGEBOB_WALK_RIGHT_IMG_1_PATH, true),
-                this.imageReader.readImage(SPONGEBOB_WALK_RIGHT_IMG_2_PATH, true),
-                this.imageReader.readImage(SPONGEBOB_WALK_RIGHT_IMG_3_PATH, true),
-                this.imageReader.readImage(SPONGEBOB_WALK_RIGHT_IMG_4_PATH, true),
-                this.imageReader.readImage(SPONGEBOB_WALK_RIGHT_IMG_5_PATH, true)
-        }, TIME_BETWEEN_CLIPS);
-        this.standAnimation = imageReader.readImage(SPONGEBOB_STAND_PATH, true);
+        //set animation of the avatar, the frames are shared, only the animation's clock is its own
+        this.animation = new AnimationRenderable(assets.frames(walkPaths), TIME_BETWEEN_CLIPS);
+        this.standAnimation = assets.image(standPath);
         renderer().setRenderable(animation);
     }
 
@@ -120,6 +136,23 @@ public class Avatar extends GameObject{
      */
     @Override
     public void update(float deltaTime) {
+        long start = updateMetrics.start();
+        move(deltaTime);
+        updateMetrics.stop(start);
+    }
+
+    /**
+     * @param updateMetrics - receives the time of the updates of the avatar and its sidekick
+     */
+    public void setUpdateMetrics(FrameMetrics.Section updateMetrics) {
+        this.updateMetrics = updateMetrics;
+    }
+
+    /**
+     * moves the avatar by the keys the user presses
+     * @param deltaTime -
+     */
+    private void move(float deltaTime) {
         super.update(deltaTime);
         float xVel = ZERO_VEL;
         //move left
@@ -181,7 +214,8 @@ public class Avatar extends GameObject{
     protected void handleMockAvatar() {
         if(inputListener.isKeyPressed(KeyEvent.VK_P) && !isMockAvatarInGame){
             Vector2 pos = getTopLeftCorner().add(Vector2.of(-100f, -100f));
-            mockAvatar = new MockAvatar(pos, inputListener, imageReader, gameObjects, this);
+            mockAvatar = new MockAvatar(pos, inputListener, assets, gameObjects, this);
+            mockAvatar.setUpdateMetrics(updateMetrics);
             gameObjects.addGameObject(mockAvatar, Layer.DEFAULT);
             isMockAvatarInGame = true;
         }
@@ -202,13 +236,13 @@ public class Avatar extends GameObject{
      * @param layer - avatar layer
      * @param topLeftCorner - top left corner avatar
      * @param inputListener - input listener
-     * @param imageReader - image reader
+     * @param assets - the shared images
      * @return avatar
      */
     public static Avatar create(GameObjectCollection gameObjects,
                                 int layer, Vector2 topLeftCorner,
-                                UserInputListener inputListener, ImageReader imageReader){
-        Avatar avatar = new Avatar(topLeftCorner, inputListener, imageReader, gameObjects);
+                                UserInputListener inputListener, AssetCache assets){
+        Avatar avatar = new Avatar(topLeftCorner, inputListener, assets, gameObjects);
         gameObjects.addGameObject(avatar, layer);
         avatar.physics().preventIntersectionsFromDirection(Vector2.ZERO);
         avatar.physics().setMass(-GameObjectPhysics.IMMOVABLE_MASS);
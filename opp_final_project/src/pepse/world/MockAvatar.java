@@ -2,12 +2,9 @@ package pepse.world;
 
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
-import danogl.collisions.Layer;
-import danogl.gui.ImageReader;
 import danogl.gui.UserInputListener;
-import danogl.gui.rendering.AnimationRenderable;
-import danogl.gui.rendering.ImageRenderable;
 import danogl.util.Vector2;
+import pepse.util.AssetCache;
 import pepse.util.EnergyCounter;
 
 import java.awt.event.KeyEvent;
@@ -22,7 +19,13 @@ public class MockAvatar extends Avatar{
     private static final String PATRICK_WALK_RIGHT_IMG_3_PATH = "pepse/assets/patrickWalk/img3.png";
     private static final String PATRICK_WALK_RIGHT_IMG_4_PATH = "pepse/assets/patrickWalk/img4.png";
     private static final String PATRICK_WALK_RIGHT_IMG_5_PATH = "pepse/assets/patrickWalk/img5.png";
-    private static final float TIME_BETWEEN_CLIPS = 0.5F;
+    private static final String[] PATRICK_WALK_RIGHT_PATHS = {PATRICK_WALK_RIGHT_IMG_1_PATH,
+            PATRICK_WALK_RIGHT_IMG_2_PATH, PATRICK_WALK_RIGHT_IMG_3_PATH, PATRICK_WALK_RIGHT_IMG_4_PATH,
+            PATRICK_WALK_RIGHT_IMG_5_PATH};
+    /** Every image the sidekick draws, to preload. */
+    public static final String[] SPRITE_PATHS = {PATRICK_STAND_PATH, PATRICK_WALK_RIGHT_IMG_1_PATH,
+            PATRICK_WALK_RIGHT_IMG_2_PATH, PATRICK_WALK_RIGHT_IMG_3_PATH, PATRICK_WALK_RIGHT_IMG_4_PATH,
+            PATRICK_WALK_RIGHT_IMG_5_PATH};
     public static final int SIZE_MOCK_AVATAR = 85;
     private static final float LENIENT_MAX_DIST = 400;
     private static final float STRICT_MAX_DIST = 1000;
@@ -32,23 +35,15 @@ public class MockAvatar extends Avatar{
      * Create a new MockAvatar object.
      * @param pos           - top left corner of avatar
      * @param inputListener - input from user
-     * @param imageReader   - image reader
+     * @param assets        - the shared images
      * @param gameObject    - GameObjectCollection to which to add.
      */
-    public MockAvatar(Vector2 pos, UserInputListener inputListener, ImageReader imageReader,
+    public MockAvatar(Vector2 pos, UserInputListener inputListener, AssetCache assets,
                       GameObjectCollection gameObject, Avatar avatar) {
-        super(pos, inputListener, imageReader, gameObject);
-        gameObject.removeGameObject(this.energyCounterNumeric, Layer.FOREGROUND);
+        super(pos, inputListener, assets, gameObject, PATRICK_STAND_PATH, PATRICK_WALK_RIGHT_PATHS);
+        this.energyCounterNumeric.removeFrom(gameObject);
         this.parentAvatar = avatar;
         this.energyCounterNumeric = avatar.energyCounterNumeric;
-        this.animation = new AnimationRenderable(new ImageRenderable[]{
-                imageReader.readImage(PATRICK_WALK_RIGHT_IMG_1_PATH, true),
-                imageReader.readImage(PATRICK_WALK_RIGHT_IMG_2_PATH, true),
-                imageReader.readImage(PATRICK_WALK_RIGHT_IMG_3_PATH, true),
-                imageReader.readImage(PATRICK_WALK_RIGHT_IMG_4_PATH, true),
-                imageReader.readImage(PATRICK_WALK_RIGHT_IMG_5_PATH, true)
-        }, TIME_BETWEEN_CLIPS);
-        this.standAnimation = imageReader.readImage(PATRICK_STAND_PATH, true);
         this.setDimensions(Vector2.ONES.mult(SIZE_MOCK_AVATAR));
 
     }
@@ -1,29 +1,41 @@
 package pepse.world;
 
+import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
-import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.ImageRenderable;
 import danogl.util.Vector2;
+import pepse.util.ColorPalette;
 import pepse.util.ColorSupplier;
+import pepse.util.HeightmapCache;
 import pepse.util.Noise;
+import pepse.util.NoiseFunction;
 
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Random;
-import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
 
 
 public class Terrain{
     private static final Color BASE_GROUND_COLOR = new Color(212, 123, 74);
+    private static final ColorPalette GROUND_PALETTE = ColorSupplier.palette(BASE_GROUND_COLOR);
     private static final int TERRAIN_DEPTH = 20;
     public static final String GROUND_TAG = "ground";
     public static final String GROUND_FIRST_LAYER_TAG = "ground0";
 
     public static int GROUND_LAYER; //it's public to use in the game manager
     private static final float GROUND_HEIGHT = 2f / 3f;
+    private static final int HEIGHTMAP_PAGE_COLUMNS = 20; //one page per chunk
+    private static final int HEIGHTMAP_MAX_PAGES = 64;
     private final GameObjectCollection gameObjects;
     private final int groundLayer;
+    private final HeightmapCache heights;
+    private final TerrainRenderMode renderMode;
     private final int seed;
-    private final Function<Float, Float> noise;
-    private final Random rand;
+    private final TerrainImageCache imageCache = new TerrainImageCache();
 
 
     /**
@@ -35,14 +47,28 @@ public class Terrain{
      */
     public Terrain(GameObjectCollection gameObjects, int groundLayer,
                    Vector2 windowDimensions, int seed) {
+        this(gameObjects, groundLayer, windowDimensions, seed, TerrainRenderMode.COLUMNS);
+    }
+
+    /**
+     * constructor
+     * @param gameObjects - game objects
+     * @param groundLayer - ground layer
+     * @param windowDimensions -window dimensions
+     * @param seed - seed to the random
+     * @param renderMode - how the ground is drawn
+     */
+    public Terrain(GameObjectCollection gameObjects, int groundLayer,
+                   Vector2 windowDimensions, int seed, TerrainRenderMode renderMode) {
         this.gameObjects = gameObjects;
+        this.renderMode = renderMode;
         this.groundLayer = groundLayer;
+        this.seed = seed;
         GROUND_LAYER = groundLayer + 1; //set the ground layer of the block that not in the first layer
         float groundHeightAtX0 = windowDimensions.y() * GROUND_HEIGHT;
-        this.seed = seed;
-        rand = new Random(seed);
-        //set the lambda noise
-        this.noise = Noise.generateNoiseFunc(seed, groundHeightAtX0, windowDimensions.x());
+        //set the noise function, every column is computed once while it stays in the cache
+        NoiseFunction noise = Noise.generateNoise(seed, groundHeightAtX0, windowDimensions.x());
+        this.heights = new HeightmapCache(noise, Block.SIZE, HEIGHTMAP_PAGE_COLUMNS, HEIGHTMAP_MAX_PAGES);
     }
 
     /**
@@ -51,35 +77,167 @@ public class Terrain{
      * @return height at x - such that fit to the noise function
      */
     public float groundHeightAt(float x) {
-        return noise.apply(x);
+        return heights.valueAt(x);
+    }
+
+    /**
+     * @return the cache all the ground heights are read through
+     */
+    public HeightmapCache getHeightmapCache() {
+        return heights;
     }
 
     /**
-     * create blocks in range
+     * create blocks in range [minX, maxX), so that adjacent ranges never create the same column twice
      * @param minX - the minimal x to start to create the ground
-     * @param maxX - the maximal x to end the ground
+     * @param maxX - the maximal x to end the ground (exclusive)
      */
     public void createInRange(int minX, int maxX) {
-        rand.setSeed(seed);
-        int normalizeMinX = (minX/Block.SIZE) * Block.SIZE - Block.SIZE;
-        int normalizeMaxX = (maxX/Block.SIZE) * Block.SIZE + Block.SIZE;
-        //create
-        for (float x = normalizeMinX, i = 0; x <= normalizeMaxX; x += Block.SIZE, i++) {
-            float height = (float) Math.floor(groundHeightAt(x) / Block.SIZE) * Block.SIZE;
-            for (float y = height, j = 0; j < TERRAIN_DEPTH; y += Block.SIZE, j++) {
-                Block block = new Block(Vector2.of(x, y),
-                    new RectangleRenderable(ColorSupplier.approximateColor(BASE_GROUND_COLOR)));
-                if(j == 0){
-                    gameObjects.addGameObject(block, groundLayer);
-                    block.setTag(GROUND_FIRST_LAYER_TAG);
-                }
-                else {
-                    gameObjects.addGameObject(block, GROUND_LAYER);
-                    block.setTag(GROUND_TAG);
-                }
+        materialize(planInRange(minX, maxX), (object, layer) -> { });
+    }
+
+    /**
+     * Computes the ground of the range [minX, maxX) without creating any GameObject. The colors of a column
+     * depend only on its x and the seed, like its height. Safe to call from a worker thread.
+     * @param minX - the minimal x to start to plan the ground
+     * @param maxX - the maximal x to end the ground (exclusive)
+     * @return the plan of the range
+     */
+    public TerrainPlan planInRange(int minX, int maxX) {
+        int normalizeMinX = Math.floorDiv(minX, Block.SIZE) * Block.SIZE;
+        int columns = Math.max(0, (maxX - normalizeMinX + Block.SIZE - 1) / Block.SIZE);
+        float[] columnHeights = new float[columns];
+        Color[] colors = new Color[columns * TERRAIN_DEPTH];
+        heights.fill(columnHeights, normalizeMinX, Block.SIZE); //the whole heightmap in one pass
+        Random colorRand = new Random(); //a generator of its own, so workers planning chunks never contend
+        for (int i = 0; i < columns; i++) {
+            columnHeights[i] = (float) Math.floor(columnHeights[i] / Block.SIZE) * Block.SIZE;
+            //seeded by the column, so planning a column again gives the colors its snapshot record has
+            colorRand.setSeed(((long) (normalizeMinX + i * Block.SIZE) << Integer.SIZE) ^ seed);
+            for (int j = 0; j < TERRAIN_DEPTH; j++) {
+                colors[i * TERRAIN_DEPTH + j] = GROUND_PALETTE.randomColor(colorRand);
+            }
+        }
+        TerrainPlan plan = new TerrainPlan(normalizeMinX, TERRAIN_DEPTH, columnHeights, colors);
+        if (renderMode == TerrainRenderMode.BAKED && columns > 0) {
+            plan.setBakedImage(bake(plan));
+        }
+        return plan;
+    }
+
+    /**
+     * Writes a plan in the snapshot format: the first x, the number of columns, then the height of every
+     * column in blocks and the palette index of every block. Heights are always whole blocks.
+     * @param plan - plan created by planInRange
+     * @param out - receives the plan
+     * @throws IOException if out fails
+     */
+    public void writePlan(TerrainPlan plan, DataOutput out) throws IOException {
+        out.writeInt(plan.getMinX());
+        out.writeShort(plan.getColumnCount());
+        out.writeByte(plan.getDepth());
+        for (int i = 0; i < plan.getColumnCount(); i++) {
+            out.writeShort(Math.round(plan.getHeight(i) / Block.SIZE));
+        }
+        for (int i = 0; i < plan.getColumnCount(); i++) {
+            for (int j = 0; j < plan.getDepth(); j++) {
+                out.writeByte(GROUND_PALETTE.indexOf(plan.getColor(i, j)));
             }
         }
+    }
+
+    /**
+     * Reads a plan written by writePlan, and bakes it like planInRange does. Safe to call from a worker
+     * thread.
+     * @param in - positioned at the plan, left after it
+     * @return the plan
+     */
+    public TerrainPlan readPlan(ByteBuffer in) {
+        int minX = in.getInt();
+        int columns = in.getShort();
+        int depth = in.get();
+        float[] columnHeights = new float[columns];
+        for (int i = 0; i < columns; i++) {
+            columnHeights[i] = in.getShort() * Block.SIZE;
+        }
+        Color[] colors = new Color[columns * depth];
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = GROUND_PALETTE.colorAt(Byte.toUnsignedInt(in.get()));
+        }
+        TerrainPlan plan = new TerrainPlan(minX, depth, columnHeights, colors);
+        if (renderMode == TerrainRenderMode.BAKED && columns > 0) {
+            plan.setBakedImage(bake(plan));
+        }
+        return plan;
+    }
+
+    /**
+     * Draws all the blocks of a plan into an image.
+     * @param plan - plan of the ground
+     * @return image of the ground, with a transparent background above the surface
+     */
+    private static BufferedImage bake(TerrainPlan plan) {
+        TerrainColumnsRenderable blocks = new TerrainColumnsRenderable(plan, 0);
+        Vector2 dimensions = Vector2.of(plan.getColumnCount() * Block.SIZE, blocks.getHeight());
+        BufferedImage image = new BufferedImage((int) dimensions.x(), (int) dimensions.y(),
+            BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        blocks.render(g, Vector2.ZERO, dimensions, 0, false, false, 1);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * Creates the ground of a plan. Must be called from the game thread.
+     * Only the surface blocks are real Blocks, since they are the only ones anything collides with. The
+     * rest of the plan is drawn by a single object in the ground layer: the buried blocks in COLUMNS mode,
+     * or the baked image of all the blocks in BAKED mode, in which case the surface Blocks are invisible.
+     * @param plan - plan created by planInRange
+     * @param registry - receives every created object with its layer
+     */
+    public void materialize(TerrainPlan plan, ObjIntConsumer<GameObject> registry) {
+        if (plan.getColumnCount() == 0) return;
+        boolean baked = plan.getBakedImage() != null;
+        for (int i = 0; i < plan.getColumnCount(); i++) {
+            float x = plan.getMinX() + i * Block.SIZE;
+            Block block = new Block(Vector2.of(x, plan.getHeight(i)),
+                baked ? null : GROUND_PALETTE.renderableOf(plan.getColor(i, 0)));
+            gameObjects.addGameObject(block, groundLayer);
+            block.setTag(GROUND_FIRST_LAYER_TAG);
+            registry.accept(block, groundLayer);
+        }
+        //a single object draws the rest of the columns
+        GameObject columns;
+        if (baked) {
+            ImageRenderable image = new ImageRenderable(plan.getBakedImage());
+            columns = new GameObject(Vector2.of(plan.getMinX(), plan.getTop()),
+                Vector2.of(image.width(), image.height()), image);
+            imageCache.put(columns, image);
+        } else {
+            TerrainColumnsRenderable buried = new TerrainColumnsRenderable(plan, 1);
+            columns = new GameObject(Vector2.of(plan.getMinX(), buried.getTop()),
+                Vector2.of(plan.getColumnCount() * Block.SIZE, buried.getHeight()), buried);
+        }
+        gameObjects.addGameObject(columns, GROUND_LAYER);
+        columns.setTag(GROUND_TAG);
+        registry.accept(columns, GROUND_LAYER);
+    }
 
+    /**
+     * Called when an object created by the terrain is removed from the game. A baked ground image the object
+     * draws is freed by the next call to flushReleasedImages.
+     * @param object - the removed object
+     */
+    public void release(GameObject object) {
+        imageCache.release(object);
+    }
+
+    /**
+     * Frees the ground images of the released objects. Called once the game applied their removal, which is
+     * after the game's next update.
+     */
+    public void flushReleasedImages() {
+        imageCache.flushReleased();
     }
 
 }
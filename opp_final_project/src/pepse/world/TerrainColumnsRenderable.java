@@ -0,0 +1,69 @@
+package pepse.world;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+
+/**
+ * Draws the blocks of a run of terrain columns, so that a whole run is a single GameObject instead of one
+ * GameObject per block. Can skip the surface blocks, when they are drawn by their own Blocks.
+ */
+public class TerrainColumnsRenderable implements Renderable {
+    private final TerrainPlan plan;
+    private final int firstRow;
+    private final float top;
+    private final float width;
+
+    /**
+     * constructor
+     * @param plan - the columns to draw
+     * @param firstRow - the first row of blocks to draw, 0 to include the surface, 1 to draw only buried ones
+     */
+    public TerrainColumnsRenderable(TerrainPlan plan, int firstRow) {
+        this.plan = plan;
+        this.firstRow = firstRow;
+        this.top = plan.getTop() + firstRow * Block.SIZE;
+        this.width = plan.getColumnCount() * Block.SIZE;
+    }
+
+    /**
+     * @return world y coordinate of the top edge of the drawn blocks
+     */
+    public float getTop() {
+        return top;
+    }
+
+    /**
+     * @return height of the drawn blocks in world coordinates
+     */
+    public float getHeight() {
+        return plan.getBottom() - top;
+    }
+
+    /**
+     * Draws every block from the first row down of every column, in the same colors the blocks would have
+     * had.
+     */
+    @Override
+    public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double degreesCounterClockwise,
+                       boolean isFlippedHorizontally, boolean isFlippedVertically, double opaqueness) {
+        if (opaqueness <= 0) return;
+        Composite composite = g.getComposite();
+        if (opaqueness < 1) {
+            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) opaqueness));
+        }
+        //world to screen scale, in case the camera zooms
+        float scale = dimensions.x() / width;
+        int blockSize = (int) Math.ceil(Block.SIZE * scale);
+        for (int i = 0; i < plan.getColumnCount(); i++) {
+            int x = (int) (topLeftCorner.x() + i * Block.SIZE * scale);
+            for (int j = firstRow; j < plan.getDepth(); j++) {
+                int y = (int) (topLeftCorner.y() + (plan.getHeight(i) + j * Block.SIZE - top) * scale);
+                g.setColor(plan.getColor(i, j));
+                g.fillRect(x, y, blockSize, blockSize);
+            }
+        }
+        g.setComposite(composite);
+    }
+}
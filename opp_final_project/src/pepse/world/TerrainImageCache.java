@@ -0,0 +1,50 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.gui.rendering.ImageRenderable;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the baked ground images of the objects in the game, and frees each image once its object is out of
+ * the game. The game only applies a removal in its next update, and the object is still rendered until
+ * then, so a released image waits for the next flush, called after that update.
+ */
+class TerrainImageCache {
+    private final Map<GameObject, ImageRenderable> images = new IdentityHashMap<>();
+    private final List<ImageRenderable> released = new ArrayList<>();
+
+    /**
+     * Adds the image an object draws.
+     * @param object - the object that draws the image
+     * @param image - the baked image
+     */
+    void put(GameObject object, ImageRenderable image) {
+        images.put(object, image);
+    }
+
+    /**
+     * Releases the image of an object that is removed from the game. Does nothing if the object does not
+     * draw a cached image.
+     * @param object - the removed object
+     */
+    void release(GameObject object) {
+        ImageRenderable image = images.remove(object);
+        if (image != null) {
+            released.add(image);
+        }
+    }
+
+    /**
+     * Frees all the released images.
+     */
+    void flushReleased() {
+        for (ImageRenderable image : released) {
+            image.getImage().flush();
+        }
+        released.clear();
+    }
+}
@@ -0,0 +1,104 @@
+package pepse.world;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * The computed layout of the ground in a range of columns: surface heights and block colors.
+ * Holds no GameObjects, so it can be built off the game thread and materialized later.
+ */
+public class TerrainPlan {
+    private final int minX;
+    private final int depth;
+    private final float[] heights;
+    private final Color[] colors;
+    private BufferedImage bakedImage;
+
+    /**
+     * constructor
+     * @param minX - x coordinate of the first column
+     * @param depth - number of blocks in every column
+     * @param heights - y coordinate of the surface block of every column
+     * @param colors - colors of the blocks, column after column, top to bottom
+     */
+    public TerrainPlan(int minX, int depth, float[] heights, Color[] colors) {
+        this.minX = minX;
+        this.depth = depth;
+        this.heights = heights;
+        this.colors = colors;
+    }
+
+    /**
+     * @return x coordinate of the first column
+     */
+    public int getMinX() {
+        return minX;
+    }
+
+    /**
+     * @return number of blocks in every column
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return number of columns in the plan
+     */
+    public int getColumnCount() {
+        return heights.length;
+    }
+
+    /**
+     * @param column index of the column in the plan
+     * @return y coordinate of the surface block of the column
+     */
+    public float getHeight(int column) {
+        return heights[column];
+    }
+
+    /**
+     * @param column index of the column in the plan
+     * @param row index of the block in the column, 0 is the surface
+     * @return color of the block
+     */
+    public Color getColor(int column, int row) {
+        return colors[column * depth + row];
+    }
+
+    /**
+     * @return y coordinate of the highest surface block
+     */
+    public float getTop() {
+        float top = Float.MAX_VALUE;
+        for (float height : heights) {
+            top = Math.min(top, height);
+        }
+        return top;
+    }
+
+    /**
+     * @return y coordinate of the bottom edge of the lowest block
+     */
+    public float getBottom() {
+        float bottom = -Float.MAX_VALUE;
+        for (float height : heights) {
+            bottom = Math.max(bottom, height + depth * Block.SIZE);
+        }
+        return bottom;
+    }
+
+    /**
+     * @return image of all the blocks of the plan, or null if it was not baked
+     */
+    public BufferedImage getBakedImage() {
+        return bakedImage;
+    }
+
+    /**
+     * @param bakedImage - image of all the blocks of the plan
+     */
+    void setBakedImage(BufferedImage bakedImage) {
+        this.bakedImage = bakedImage;
+    }
+}
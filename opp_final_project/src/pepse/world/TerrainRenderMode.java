@@ -0,0 +1,11 @@
+package pepse.world;
+
+/**
+ * How the ground is drawn.
+ */
+public enum TerrainRenderMode {
+    /** Surface blocks are drawn one by one, the buried blocks of a chunk are drawn together. */
+    COLUMNS,
+    /** All the blocks of a chunk are baked once into an image, which is drawn with a single call. */
+    BAKED
+}
@@ -0,0 +1,143 @@
+package pepse.world.chunks;
+
+import danogl.GameObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A fixed-width vertical slice of the world, identified by its index.
+ * Chunk i covers the x-range [i * width, (i + 1) * width).
+ * Every object created for the chunk is registered in it with its layer, so evicting the chunk removes
+ * exactly its own objects.
+ */
+public class Chunk {
+    private final int index;
+    private final int minX;
+    private final int maxX;
+    private static final int INITIAL_CAPACITY = 64;
+    private final List<GameObject> objects = new ArrayList<>();
+    private int[] layers = new int[INITIAL_CAPACITY];
+    private ChunkState state = ChunkState.PLANNED;
+    private boolean visible = true;
+
+    /**
+     * constructor
+     * @param index - index of the chunk
+     * @param width - width of every chunk in pixels
+     */
+    public Chunk(int index, int width) {
+        this.index = index;
+        this.minX = index * width;
+        this.maxX = minX + width;
+    }
+
+    /**
+     * @return index of the chunk
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the first x coordinate of the chunk (inclusive)
+     */
+    public int getMinX() {
+        return minX;
+    }
+
+    /**
+     * @return the last x coordinate of the chunk (exclusive)
+     */
+    public int getMaxX() {
+        return maxX;
+    }
+
+    /**
+     * @return current life-cycle state
+     */
+    public ChunkState getState() {
+        return state;
+    }
+
+    /**
+     * Registers an object that was added to the game for this chunk.
+     * @param object - the object
+     * @param layer - layer the object was added to
+     */
+    public void register(GameObject object, int layer) {
+        if (objects.size() == layers.length) {
+            layers = Arrays.copyOf(layers, layers.length * 2);
+        }
+        layers[objects.size()] = layer;
+        objects.add(object);
+    }
+
+    /**
+     * Passes every registered object and its layer to the given action, and keeps them registered.
+     * @param action - called with each object and its layer
+     */
+    public void forEachObject(ObjIntConsumer<GameObject> action) {
+        for (int i = 0; i < objects.size(); i++) {
+            action.accept(objects.get(i), layers[i]);
+        }
+    }
+
+    /**
+     * Passes every registered object and its layer to the given action, then forgets them.
+     * @param action - called with each object and its layer
+     */
+    public void releaseObjects(ObjIntConsumer<GameObject> action) {
+        for (int i = 0; i < objects.size(); i++) {
+            action.accept(objects.get(i), layers[i]);
+        }
+        objects.clear();
+    }
+
+    /**
+     * Passes some of the registered objects and their layers to the given action, then forgets them, so a
+     * large chunk can be released over several frames. The objects are released last registered first.
+     * @param action - called with each object and its layer
+     * @param maxObjects - maximal number of objects to release
+     * @return number of objects still registered
+     */
+    public int releaseObjects(ObjIntConsumer<GameObject> action, int maxObjects) {
+        int end = objects.size();
+        int start = Math.max(0, end - maxObjects);
+        for (int i = end - 1; i >= start; i--) {
+            action.accept(objects.remove(i), layers[i]);
+        }
+        return objects.size();
+    }
+
+    /**
+     * @return number of registered objects
+     */
+    public int getObjectCount() {
+        return objects.size();
+    }
+
+    /**
+     * @return false if the chunk was hidden for being far from the camera
+     */
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * set life-cycle state
+     * @param state - new state
+     */
+    void setState(ChunkState state) {
+        this.state = state;
+    }
+
+    /**
+     * @param visible - whether the chunk is close enough to the camera to be shown
+     */
+    void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+}
@@ -0,0 +1,230 @@
+package pepse.world.chunks;
+
+import pepse.metrics.ChunkGenerationEvent;
+import pepse.metrics.ChunkPlanningEvent;
+import pepse.util.WorkScheduler;
+import pepse.world.Terrain;
+import pepse.world.TerrainPlan;
+import pepse.world.trees.Tree;
+import pepse.world.trees.TreePlan;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Generates the content of chunks. In asynchronous mode the noise, colors and tree layout are computed on
+ * a small pool of worker threads, and only the creation of the GameObjects is left to the game thread,
+ * which splits it into small units of work that run within a time budget every frame.
+ * With a WorldSnapshot, a chunk is planned once per world: its plan is written to the snapshot, and decoded
+ * from it whenever the chunk is generated again, in this run or a later one.
+ */
+public class ChunkGenerator {
+    private final Terrain terrain;
+    private final Tree tree;
+    private final ExecutorService workers;
+    private final Queue<ChunkPlan> readyPlans = new ConcurrentLinkedQueue<>();
+    private boolean async = false;
+    private WorldSnapshot snapshot = null;
+
+    /**
+     * constructor
+     * @param terrain - creates the ground
+     * @param tree - creates the trees
+     * @param workerThreads - number of worker threads for asynchronous generation
+     */
+    public ChunkGenerator(Terrain terrain, Tree tree, int workerThreads) {
+        this.terrain = terrain;
+        this.tree = tree;
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "chunk-generator");
+            thread.setDaemon(true); //never keep the game alive after the window closes
+            return thread;
+        });
+    }
+
+    /**
+     * @param async - whether chunks are planned on the worker threads from now on
+     */
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    /**
+     * @param snapshot - the plans of the world, read before planning and written after it, or null to plan
+     *                 every chunk
+     */
+    public void setSnapshot(WorldSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Stops the worker threads and closes the snapshot. Plans that were still computed are dropped, and
+     * the generator must not be used afterwards.
+     */
+    public void close() {
+        workers.shutdownNow();
+        if (snapshot == null) return;
+        try {
+            snapshot.close();
+        } catch (IOException ignored) {
+            //every record was already written, the file is complete
+        }
+    }
+
+    /**
+     * Generates a chunk. In synchronous mode the chunk is materialized before returning, in asynchronous
+     * mode it stays planned until a later call to scheduleReady.
+     * @param chunk - the chunk to generate
+     * @return true if the chunk was materialized immediately
+     */
+    public boolean generate(Chunk chunk) {
+        return generate(chunk, false);
+    }
+
+    /**
+     * Generates a chunk. In synchronous mode, or if the chunk is urgent, the chunk is materialized before
+     * returning, otherwise it stays planned until a later call to scheduleReady.
+     * @param chunk - the chunk to generate
+     * @param urgent - whether the chunk is needed right away, for example because it is in view
+     * @return true if the chunk was materialized immediately
+     */
+    public boolean generate(Chunk chunk, boolean urgent) {
+        if (!async || urgent) {
+            commit(plan(chunk));
+            chunk.setState(ChunkState.MATERIALIZED);
+            return true;
+        }
+        workers.execute(() -> readyPlans.add(plan(chunk)));
+        return false;
+    }
+
+    /**
+     * Splits every plan finished by the workers into units of work of the scheduler, so that its objects
+     * are created over as many frames as the scheduler's budget needs: first the ground of the chunk, then
+     * one unit per tree with its leaves. The chunk is materialized when its last unit ran. Plans of chunks
+     * that were evicted while they were computed are dropped, and the units of a chunk that is evicted
+     * before they run do nothing. Must be called from the game thread.
+     * @param scheduler - runs the units, prioritized by chunk index
+     */
+    public void scheduleReady(WorkScheduler scheduler) {
+        ChunkPlan plan;
+        while ((plan = readyPlans.poll()) != null) {
+            Chunk chunk = plan.getChunk();
+            if (chunk.getState() != ChunkState.PLANNED) continue;
+            ChunkGenerationEvent event = new ChunkGenerationEvent();
+            event.begin();
+            TerrainPlan ground = plan.getTerrain();
+            scheduler.submit(chunk.getIndex(), () -> {
+                if (chunk.getState() == ChunkState.PLANNED) terrain.materialize(ground, chunk::register);
+            });
+            for (TreePlan treePlan : plan.getTrees()) {
+                scheduler.submit(chunk.getIndex(), () -> {
+                    if (chunk.getState() == ChunkState.PLANNED) tree.materialize(treePlan, chunk::register);
+                });
+            }
+            ChunkPlan scheduled = plan;
+            scheduler.submit(chunk.getIndex(), () -> {
+                if (chunk.getState() != ChunkState.PLANNED) return;
+                chunk.setState(ChunkState.MATERIALIZED);
+                commitEvent(event, scheduled);
+            });
+        }
+    }
+
+    /**
+     * Computes the content of a chunk, or decodes it from the snapshot.
+     * @param chunk - the chunk to plan
+     * @return plan of the chunk
+     */
+    private ChunkPlan plan(Chunk chunk) {
+        ChunkPlanningEvent event = new ChunkPlanningEvent();
+        event.begin();
+        ChunkPlan plan = load(chunk);
+        boolean loaded = plan != null;
+        if (!loaded) {
+            plan = new ChunkPlan(chunk, terrain.planInRange(chunk.getMinX(), chunk.getMaxX()),
+                    tree.planInRange(chunk.getMinX(), chunk.getMaxX()));
+            store(plan);
+        }
+        if (event.shouldCommit()) {
+            event.chunk = chunk.getIndex();
+            event.minX = chunk.getMinX();
+            event.maxX = chunk.getMaxX();
+            event.fromSnapshot = loaded;
+            event.commit();
+        }
+        return plan;
+    }
+
+    /**
+     * @param chunk - the chunk to decode
+     * @return plan of the chunk as it was stored in the snapshot, or null if it has to be planned
+     */
+    private ChunkPlan load(Chunk chunk) {
+        if (snapshot == null) return null;
+        ByteBuffer record = snapshot.read(chunk.getIndex());
+        if (record == null) return null;
+        try {
+            return new ChunkPlan(chunk, terrain.readPlan(record), tree.readPlans(record));
+        } catch (RuntimeException e) {
+            //a damaged record: cut short, or with counts or palette indices out of range
+            return null; //plan the chunk again
+        }
+    }
+
+    /**
+     * Writes the plan of a chunk to the snapshot.
+     * @param plan - plan of the chunk
+     */
+    private void store(ChunkPlan plan) {
+        if (snapshot == null) return;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            terrain.writePlan(plan.getTerrain(), out);
+            tree.writePlans(plan.getTrees(), out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); //never thrown by a stream of bytes in memory
+        }
+        snapshot.write(plan.getChunk().getIndex(), bytes.toByteArray());
+    }
+
+    /**
+     * Creates the objects of a plan and registers them in its chunk.
+     * @param plan - plan of the chunk
+     */
+    private void commit(ChunkPlan plan) {
+        ChunkGenerationEvent event = new ChunkGenerationEvent();
+        event.begin();
+        Chunk chunk = plan.getChunk();
+        terrain.materialize(plan.getTerrain(), chunk::register);
+        tree.materialize(plan.getTrees(), chunk::register);
+        commitEvent(event, plan);
+    }
+
+    /**
+     * Records the generation of a chunk, if a flight recording wants it.
+     * @param event - begun when the creation of the chunk's objects began
+     * @param plan - plan of the chunk
+     */
+    private void commitEvent(ChunkGenerationEvent event, ChunkPlan plan) {
+        if (!event.shouldCommit()) return;
+        Chunk chunk = plan.getChunk();
+        event.chunk = chunk.getIndex();
+        event.minX = chunk.getMinX();
+        event.maxX = chunk.getMaxX();
+        event.columns = plan.getTerrain().getColumnCount();
+        event.trees = plan.getTrees().size();
+        for (TreePlan treePlan : plan.getTrees()) {
+            event.leaves += treePlan.getRows() * treePlan.getCols();
+        }
+        event.async = async;
+        event.commit();
+    }
+}
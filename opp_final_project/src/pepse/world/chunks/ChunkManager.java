@@ -0,0 +1,141 @@
+package pepse.world.chunks;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Streams the world in fixed-width chunks around a focus point (the camera).
+ * Every chunk within the view radius of the focus chunk is kept materialized, and every chunk that leaves
+ * it is evicted. Of the materialized chunks, only the ones near the camera are visible, the others are
+ * hidden so they cost nothing per frame. The work itself is delegated to a ChunkListener, so the manager
+ * does not depend on Terrain or Tree.
+ */
+public class ChunkManager {
+
+    /**
+     * Callback that builds and destroys the content of a chunk.
+     */
+    public interface ChunkListener {
+        /**
+         * Called when a chunk enters the view radius.
+         * @param chunk - the chunk to build
+         * @return true if the chunk was built immediately, false if it stays planned and is built later
+         */
+        boolean onMaterialize(Chunk chunk);
+
+        /**
+         * Called when a chunk leaves the view radius.
+         * @param chunk - the chunk to destroy
+         */
+        void onEvict(Chunk chunk);
+
+        /**
+         * Called when a materialized chunk goes out of the camera's range or comes back into it.
+         * @param chunk - the chunk
+         * @param visible - whether the chunk is now visible
+         */
+        void onVisibilityChanged(Chunk chunk, boolean visible);
+    }
+
+    private static final int NO_CHUNK = Integer.MIN_VALUE;
+    private final int chunkWidth;
+    private final int viewRadius;
+    private final ChunkListener listener;
+    private final Map<Integer, Chunk> chunks = new HashMap<>();
+    private int focusIndex = NO_CHUNK;
+
+    /**
+     * constructor
+     * @param chunkWidth - width of a chunk in pixels
+     * @param viewRadius - number of chunks to keep on each side of the focus chunk
+     * @param listener - builds and destroys chunks
+     */
+    public ChunkManager(int chunkWidth, int viewRadius, ChunkListener listener) {
+        this.chunkWidth = chunkWidth;
+        this.viewRadius = viewRadius;
+        this.listener = listener;
+    }
+
+    /**
+     * Loads and unloads chunks according to the focus point. Does nothing while the focus stays in the
+     * same chunk, so it is cheap to call every frame.
+     * @param focusX - x coordinate of the focus (usually the camera center)
+     * @return true if the focus moved to another chunk and the world was streamed around it
+     */
+    public boolean update(float focusX) {
+        int index = indexOf(focusX);
+        if (index == focusIndex) return false;
+        focusIndex = index;
+        evictOutOfRange();
+        //load the chunks closest to the focus first
+        materialize(index);
+        for (int delta = 1; delta <= viewRadius; delta++) {
+            materialize(index + delta);
+            materialize(index - delta);
+        }
+        return true;
+    }
+
+    /**
+     * Shows the materialized chunks that overlap the given range and hides the ones that are farther than
+     * half a chunk from it. A chunk in between keeps its visibility, so a camera that moves back and forth
+     * over a chunk's edge does not hide and show it every frame. Cheap to call every frame.
+     * @param minX - the first x coordinate that must be shown, usually the camera's left edge minus a margin
+     * @param maxX - the last x coordinate that must be shown, usually the camera's right edge plus a margin
+     */
+    public void updateVisibility(float minX, float maxX) {
+        float hysteresis = chunkWidth / 2f;
+        for (Chunk chunk : chunks.values()) {
+            if (chunk.getState() != ChunkState.MATERIALIZED) continue;
+            boolean show = chunk.getMaxX() > minX && chunk.getMinX() < maxX;
+            boolean hide = chunk.getMaxX() <= minX - hysteresis || chunk.getMinX() >= maxX + hysteresis;
+            if (show && !chunk.isVisible() || hide && chunk.isVisible()) {
+                chunk.setVisible(show);
+                listener.onVisibilityChanged(chunk, show);
+            }
+        }
+    }
+
+    /**
+     * @param x coordinate
+     * @return index of the chunk that contains x
+     */
+    public int indexOf(float x) {
+        return (int) Math.floor(x / chunkWidth);
+    }
+
+    /**
+     * @return number of chunks currently tracked
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Creates the chunk at the given index if it is not loaded yet.
+     * @param index of the chunk
+     */
+    private void materialize(int index) {
+        if (chunks.containsKey(index)) return;
+        Chunk chunk = new Chunk(index, chunkWidth);
+        chunks.put(index, chunk);
+        if (listener.onMaterialize(chunk)) {
+            chunk.setState(ChunkState.MATERIALIZED);
+        }
+    }
+
+    /**
+     * Evicts all the chunks that are farther than the view radius from the focus chunk.
+     */
+    private void evictOutOfRange() {
+        Iterator<Chunk> iterator = chunks.values().iterator();
+        while (iterator.hasNext()) {
+            Chunk chunk = iterator.next();
+            if (Math.abs(chunk.getIndex() - focusIndex) <= viewRadius) continue;
+            iterator.remove();
+            chunk.setState(ChunkState.EVICTED);
+            listener.onEvict(chunk);
+        }
+    }
+}
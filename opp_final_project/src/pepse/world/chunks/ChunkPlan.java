@@ -0,0 +1,48 @@
+package pepse.world.chunks;
+
+import pepse.world.TerrainPlan;
+import pepse.world.trees.TreePlan;
+
+import java.util.List;
+
+/**
+ * Everything that was computed for a chunk and is waiting to be added to the game.
+ */
+public class ChunkPlan {
+    private final Chunk chunk;
+    private final TerrainPlan terrain;
+    private final List<TreePlan> trees;
+
+    /**
+     * constructor
+     * @param chunk - the planned chunk
+     * @param terrain - plan of the ground of the chunk
+     * @param trees - plans of the trees of the chunk
+     */
+    public ChunkPlan(Chunk chunk, TerrainPlan terrain, List<TreePlan> trees) {
+        this.chunk = chunk;
+        this.terrain = terrain;
+        this.trees = trees;
+    }
+
+    /**
+     * @return the planned chunk
+     */
+    public Chunk getChunk() {
+        return chunk;
+    }
+
+    /**
+     * @return plan of the ground of the chunk
+     */
+    public TerrainPlan getTerrain() {
+        return terrain;
+    }
+
+    /**
+     * @return plans of the trees of the chunk
+     */
+    public List<TreePlan> getTrees() {
+        return trees;
+    }
+}
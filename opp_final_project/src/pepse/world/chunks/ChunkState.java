@@ -0,0 +1,13 @@
+package pepse.world.chunks;
+
+/**
+ * Life-cycle states of a world chunk.
+ */
+public enum ChunkState {
+    /** The chunk is wanted around the camera, but its objects are not in the game yet. */
+    PLANNED,
+    /** The chunk's objects were added to the game. */
+    MATERIALIZED,
+    /** The chunk left the view radius and its objects were removed. */
+    EVICTED
+}
@@ -0,0 +1,196 @@
+package pepse.world.chunks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A file of encoded chunk plans of one world, so a chunk is generated once per world and only decoded
+ * afterwards, in this run and in every later one.
+ * The file starts with a header: a magic number, the format version and the key of the world (the values
+ * the world is derived from, such as the seed). Then come the records, each the index of its chunk, the
+ * length of its plan and the plan itself. A record is never rewritten, new chunks are appended.
+ * Records are read from a read-only memory mapping of the file, so a read is a slice of the page cache and
+ * not a copy. The mapping is extended when a record written in this run is read.
+ * A file of another world or of another version is replaced, and a record cut by a crash is dropped.
+ * Files are limited to 2GB. Thread-safe.
+ */
+public class WorldSnapshot {
+    private static final int MAGIC = 0x50455053; //"PEPS"
+    private static final int VERSION = 2; //2: the ground colors are seeded by their column
+    private static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final FileChannel channel;
+    private final Map<Integer, Long> records = new ConcurrentHashMap<>();
+    private volatile MappedByteBuffer mapped;
+    private long end;
+    private boolean writable = true;
+
+    /**
+     * constructor
+     * @param channel - the open file
+     * @param end - position of the end of the last complete record
+     */
+    private WorldSnapshot(FileChannel channel, long end) {
+        this.channel = channel;
+        this.end = end;
+    }
+
+    /**
+     * Opens the snapshot of a world, creating it if the file is missing or belongs to another world.
+     * @param file - path of the snapshot
+     * @param key - the values the world is derived from
+     * @return the snapshot
+     * @throws IOException if the file cannot be opened or created
+     */
+    public static WorldSnapshot open(Path file, int... key) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = header(key);
+            WorldSnapshot snapshot;
+            if (matchesHeader(channel, header)) {
+                snapshot = new WorldSnapshot(channel, header.capacity());
+                snapshot.indexRecords();
+            } else {
+                channel.truncate(0);
+                channel.write(header, 0);
+                snapshot = new WorldSnapshot(channel, header.capacity());
+            }
+            //anything after the last complete record is a record that a crash cut
+            channel.truncate(snapshot.end);
+            snapshot.map();
+            return snapshot;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the plan of a chunk.
+     * @param chunkIndex - index of the chunk
+     * @return a read-only buffer of the plan as it was written, or null if the chunk is not in the snapshot
+     */
+    public ByteBuffer read(int chunkIndex) {
+        Long record = records.get(chunkIndex);
+        if (record == null) return null;
+        long position = record;
+        MappedByteBuffer buffer = mapped;
+        if (position + RECORD_HEADER_BYTES > buffer.capacity()) {
+            buffer = remap();
+            if (buffer == null) return null;
+        }
+        int length = buffer.getInt((int) position + Integer.BYTES);
+        int start = (int) (position + RECORD_HEADER_BYTES);
+        ByteBuffer plan = buffer.asReadOnlyBuffer();
+        plan.position(start).limit(start + length);
+        return plan.slice();
+    }
+
+    /**
+     * Appends the plan of a chunk, unless the chunk is already in the snapshot. After a failed write the
+     * snapshot stops writing, and the plans are only kept in the game.
+     * @param chunkIndex - index of the chunk
+     * @param plan - the encoded plan
+     */
+    public synchronized void write(int chunkIndex, byte[] plan) {
+        if (!writable || records.containsKey(chunkIndex)) return;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + plan.length);
+        record.putInt(chunkIndex).putInt(plan.length).put(plan).flip();
+        try {
+            long position = end;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            records.put(chunkIndex, end);
+            end = position;
+        } catch (IOException e) {
+            writable = false; //the game runs the same without the snapshot
+        }
+    }
+
+    /**
+     * Closes the file. Reads of records that were already mapped stay valid.
+     * @throws IOException if the file fails to close
+     */
+    public synchronized void close() throws IOException {
+        writable = false;
+        channel.close();
+    }
+
+    /**
+     * Finds all the complete records of the file, and moves the end after the last one.
+     * @throws IOException if the file cannot be read
+     */
+    private void indexRecords() throws IOException {
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        long size = channel.size();
+        while (end + RECORD_HEADER_BYTES <= size) {
+            recordHeader.clear();
+            channel.read(recordHeader, end);
+            int chunkIndex = recordHeader.getInt(0);
+            int length = recordHeader.getInt(Integer.BYTES);
+            if (length < 0 || end + RECORD_HEADER_BYTES + length > size) break;
+            records.putIfAbsent(chunkIndex, end);
+            end += RECORD_HEADER_BYTES + length;
+        }
+    }
+
+    /**
+     * Maps the complete records of the file.
+     * @throws IOException if the file cannot be mapped
+     */
+    private synchronized void map() throws IOException {
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, end);
+    }
+
+    /**
+     * Maps the file again to include the records written since it was mapped.
+     * @return the new mapping, or null if the file cannot be mapped
+     */
+    private synchronized MappedByteBuffer remap() {
+        try {
+            if (mapped.capacity() < end) {
+                map();
+            }
+            return mapped;
+        } catch (IOException e) {
+            return null; //the chunk is generated again instead
+        }
+    }
+
+    /**
+     * @param key - the values the world is derived from
+     * @return the header of a snapshot of the world, ready to be written
+     */
+    private static ByteBuffer header(int[] key) {
+        ByteBuffer header = ByteBuffer.allocate((3 + key.length) * Integer.BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(key.length);
+        for (int value : key) {
+            header.putInt(value);
+        }
+        return header.flip();
+    }
+
+    /**
+     * @param channel - the open file
+     * @param header - the expected header
+     * @return true if the file starts with the header
+     * @throws IOException if the file cannot be read
+     */
+    private static boolean matchesHeader(FileChannel channel, ByteBuffer header) throws IOException {
+        if (channel.size() < header.capacity()) return false;
+        ByteBuffer existing = ByteBuffer.allocate(header.capacity());
+        channel.read(existing, 0);
+        return Arrays.equals(existing.array(), header.array());
+    }
+}
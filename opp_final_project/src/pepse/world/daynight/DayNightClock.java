@@ -0,0 +1,138 @@
+package pepse.world.daynight;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.components.CoordinateSpace;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.metrics.FrameMetrics;
+import pepse.metrics.MeasuredGameObject;
+import pepse.world.Sky;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Drives the day-night cycle: the sun's path over the sky and the darkness of the night. Both are read
+ * from a table computed once for a fixed number of steps per cycle, so a frame only advances the time, and
+ * the sun and the night only change when the cycle reaches the next step.
+ * The clock is also the background of the game: it draws the sky, then the sun and its halo, which are
+ * composited once into a single image since they never change, only move. This replaces the separate sky,
+ * sun, halo and night objects that each ran a component every frame.
+ */
+public class DayNightClock extends MeasuredGameObject {
+    private static final int STEPS_PER_CYCLE = 1440; //the sun moves about 3 pixels per step
+
+    private final float cycleLength;
+    private final GameObject night;
+    private final float[] sunCenterX = new float[STEPS_PER_CYCLE];
+    private final float[] sunCenterY = new float[STEPS_PER_CYCLE];
+    private final float[] nightOpacity = new float[STEPS_PER_CYCLE];
+    private final BufferedImage sunWithHalo;
+    private float time = 0;
+    private int step = -1;
+    private float sunX;
+    private float sunY;
+
+    /**
+     * constructor
+     * @param windowDimensions - size of the window, which the sky covers
+     * @param cycleLength - time of a whole day and night
+     * @param sunHaloColor - sun halo color
+     * @param night - the object that darkens the world at night
+     * @param metrics - receives the time of the clock's updates
+     */
+    public DayNightClock(Vector2 windowDimensions, float cycleLength, Color sunHaloColor, GameObject night,
+                         FrameMetrics.Section metrics) {
+        super(Vector2.ZERO, windowDimensions, null, metrics);
+        this.cycleLength = cycleLength;
+        this.night = night;
+        for (int i = 0; i < STEPS_PER_CYCLE; i++) {
+            float cycleFraction = (float) i / STEPS_PER_CYCLE;
+            Vector2 sunCenter = Sun.centerAt(cycleFraction, windowDimensions);
+            sunCenterX[i] = sunCenter.x();
+            sunCenterY[i] = sunCenter.y();
+            nightOpacity[i] = Night.opacityAt(cycleFraction);
+        }
+        sunWithHalo = composeSun(sunHaloColor);
+        renderer().setRenderable(new BackgroundRenderable());
+        setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+        showStep(0);
+    }
+
+    /**
+     * create the sky, the sun and the night, and the clock that drives them
+     * @param gameObjects - objects in game
+     * @param skyLayer - layer of the sky, behind everything
+     * @param nightLayer - layer of the night, in front of the world
+     * @param windowDimensions - size of the window
+     * @param cycleLength - time of a whole day and night
+     * @param sunHaloColor - sun halo color
+     * @param metrics - receives the time of the clock's updates
+     * @return the clock
+     */
+    public static DayNightClock create(GameObjectCollection gameObjects, int skyLayer, int nightLayer,
+                                       Vector2 windowDimensions, float cycleLength, Color sunHaloColor,
+                                       FrameMetrics.Section metrics) {
+        GameObject night = Night.create(gameObjects, nightLayer, windowDimensions);
+        DayNightClock clock = new DayNightClock(windowDimensions, cycleLength, sunHaloColor, night, metrics);
+        gameObjects.addGameObject(clock, skyLayer);
+        clock.setTag(Sky.SKY);
+        return clock;
+    }
+
+    /**
+     * Advances the cycle, and moves the sun and darkens the night when it reaches another step.
+     * @param deltaTime - time since the last frame
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        time = (time + deltaTime) % cycleLength;
+        int current = Math.min((int) (time / cycleLength * STEPS_PER_CYCLE), STEPS_PER_CYCLE - 1);
+        if (current != step) {
+            showStep(current);
+        }
+    }
+
+    /**
+     * Moves the sun and sets the darkness of the night to a step of the cycle.
+     * @param step - index in the tables
+     */
+    private void showStep(int step) {
+        this.step = step;
+        sunX = sunCenterX[step];
+        sunY = sunCenterY[step];
+        night.renderer().setOpaqueness(nightOpacity[step]);
+    }
+
+    /**
+     * @param sunHaloColor - sun halo color
+     * @return an image of the sun in the middle of its halo
+     */
+    private static BufferedImage composeSun(Color sunHaloColor) {
+        BufferedImage image = new BufferedImage(SunHalo.SUN_HALO_SIZE, SunHalo.SUN_HALO_SIZE,
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        float center = SunHalo.SUN_HALO_SIZE / 2f;
+        Sun.draw(g, center, center);
+        SunHalo.draw(g, sunHaloColor, center, center); //the halo is in front of the sun
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * Draws the sky, then the sun with its halo where the cycle puts it.
+     */
+    private class BackgroundRenderable implements Renderable {
+        @Override
+        public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+                           double degreesCounterClockwise, boolean isFlippedHorizontally,
+                           boolean isFlippedVertically, double opaqueness) {
+            Sky.draw(g, topLeftCorner, dimensions);
+            int half = sunWithHalo.getWidth() / 2;
+            g.drawImage(sunWithHalo, (int) (topLeftCorner.x() + sunX) - half,
+                    (int) (topLeftCorner.y() + sunY) - half, null);
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package pepse.world.daynight;
 
-import danogl.GameManager;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
-import danogl.collisions.Layer;
 import danogl.components.CoordinateSpace;
 import danogl.components.Transition;
 import danogl.gui.rendering.RectangleRenderable;
@@ -12,34 +10,41 @@ import danogl.util.Vector2;
 import java.awt.*;
 
 /**
- * Handle the color of the backround to simulate darkness.
+ * Handle the color of the backround to simulate darkness. The darkness is set by the DayNightClock.
  */
 public class Night {
     private static final Float NOON_OPACITY = 0f;
     private static final Float MIDNIGHT_OPACITY = 0.5f;
+    private static final float HALF_CYCLE = 0.5f;
     public static final String NIGHT_TAG = "night";
 
     /**
-     * create Night
+     * create Night, as light as at noon
      * @param gameObjects - objects in game
      * @param layer - night layer
      * @param windowDimensions - size
-     * @param cycleLength - to change to darker sky
      * @return game object of night
      */
-    public static GameObject create(GameObjectCollection gameObjects, int layer,
-                                    Vector2 windowDimensions, float cycleLength){
+    public static GameObject create(GameObjectCollection gameObjects, int layer, Vector2 windowDimensions){
 
         GameObject night = new GameObject(
                 Vector2.ZERO, windowDimensions,
                 new RectangleRenderable(Color.BLACK));
         night.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+        night.renderer().setOpaqueness(NOON_OPACITY);
         gameObjects.addGameObject(night, layer);
         night.setTag(NIGHT_TAG);
-        //change background opaqueness, make the sky be darker in half cycle length.
-        new Transition<Float>(night, night.renderer()::setOpaqueness,
-                NOON_OPACITY, MIDNIGHT_OPACITY, Transition.CUBIC_INTERPOLATOR_FLOAT, cycleLength/2,
-                Transition.TransitionType.TRANSITION_BACK_AND_FORTH, null);
         return night;
     }
+
+    /**
+     * opacity of the night at a point of the cycle. The sky gets darker over half a cycle, and lighter over
+     * the other half.
+     * @param cycleFraction - point of the cycle, in [0, 1)
+     * @return opaqueness of the night
+     */
+    static float opacityAt(float cycleFraction) {
+        float t = cycleFraction < HALF_CYCLE ? cycleFraction / HALF_CYCLE : (1 - cycleFraction) / HALF_CYCLE;
+        return Transition.CUBIC_INTERPOLATOR_FLOAT.interpolate(NOON_OPACITY, MIDNIGHT_OPACITY, t);
+    }
 }
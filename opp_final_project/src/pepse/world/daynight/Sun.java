@@ -1,52 +1,39 @@
 package pepse.world.daynight;
 
-import danogl.GameObject;
-import danogl.collisions.GameObjectCollection;
-import danogl.components.CoordinateSpace;
-import danogl.components.Transition;
-import danogl.gui.rendering.OvalRenderable;
-import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
 
 import java.awt.*;
-import java.util.function.Consumer;
-import java.util.function.Function;
 
 /**
- * Handles the sun in the game's world.
+ * Handles the sun in the game's world: its path over the sky and how it is drawn. The sun is drawn by the
+ * DayNightClock, as part of the sky.
  */
 public class Sun {
-    private static final Float START_ANGEL =  0f;
-    private static final Float FINAL_ANGEL =  360f;
-    public static final String SUN_TAG = "sun";
-    private static final float SUN_SIZE = 100;
+    private static final float FULL_CIRCLE = 360f;
+    static final float SUN_SIZE = 100;
 
     /**
-     * create sun
-     * @param gameObjects - objects in game
-     * @param layer - sun layer
-     * @param windowDimensions -
-     * @param cycleLength -
-     * @return sun
+     * center of the sun at a point of the cycle, on an (a*cos(x), b*sin(x)) path
+     * @param cycleFraction - point of the cycle, in [0, 1)
+     * @param windowDimensions - size of the window
+     * @return center of the sun in camera coordinates
      */
-    public static GameObject create(GameObjectCollection gameObjects, int layer,
-            Vector2 windowDimensions, float cycleLength){
-        GameObject sun = new GameObject(
-                Vector2.ZERO, new Vector2(SUN_SIZE, SUN_SIZE),
-                new OvalRenderable(Color.YELLOW));
-        sun.setCenter(new Vector2(SUN_SIZE/2, windowDimensions.y() + SUN_SIZE/2));
-        sun.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
-        gameObjects.addGameObject(sun, layer);
-        sun.setTag(SUN_TAG);
+    static Vector2 centerAt(float cycleFraction, Vector2 windowDimensions) {
+        double angle = Math.toRadians(FULL_CIRCLE * cycleFraction);
+        return new Vector2(
+                windowDimensions.x()/2 - (float) Math.cos(angle) * (windowDimensions.x() - SUN_SIZE)/2,
+                windowDimensions.y()/2 - (float) Math.sin(angle) * (windowDimensions.y() - SUN_SIZE)/2);
+    }
 
-        //set sun center changed in (a*cos(x), b*sin(x)) path
-        new Transition<Float>(sun,angle -> sun.setCenter(new Vector2(
-                windowDimensions.x()/2 - (float) Math.cos(Math.toRadians(angle)) *
-                        (windowDimensions.x() - SUN_SIZE)/2,
-                 windowDimensions.y()/2 - (float) Math.sin(Math.toRadians(angle)) *
-                         (windowDimensions.y() - SUN_SIZE)/2)),
-                START_ANGEL, FINAL_ANGEL, Transition.LINEAR_INTERPOLATOR_FLOAT, cycleLength,
-                Transition.TransitionType.TRANSITION_LOOP, null);
-        return sun;
+    /**
+     * draw the sun
+     * @param g - graphics to draw on
+     * @param centerX - x of the center of the sun
+     * @param centerY - y of the center of the sun
+     */
+    static void draw(Graphics2D g, float centerX, float centerY) {
+        g.setColor(Color.YELLOW);
+        g.fillOval(Math.round(centerX - SUN_SIZE/2), Math.round(centerY - SUN_SIZE/2),
+                Math.round(SUN_SIZE), Math.round(SUN_SIZE));
     }
 }
@@ -1,41 +1,25 @@
 package pepse.world.daynight;
 
-import danogl.GameObject;
-import danogl.collisions.GameObjectCollection;
-import danogl.components.CoordinateSpace;
-import danogl.gui.rendering.OvalRenderable;
-import danogl.util.Vector2;
-
 import java.awt.*;
 
 /**
- * Handles the sun's halo in the game's world.
+ * Handles the sun's halo in the game's world. The halo is drawn by the DayNightClock, around the sun.
  */
 public class SunHalo {
 
-    private static final int SUN_HALO_SIZE = 300;
-    public static final String SUN_HALO_TAG = "sunHalo";
+    static final int SUN_HALO_SIZE = 300;
 
     /**
-     * create sun halo
-     * @param gameObjects - game objects
-     * @param layer - sun halo layer
-     * @param sun - game object
+     * draw the sun halo
+     * @param g - graphics to draw on
      * @param color - sun halo color
-     * @return sun halo
+     * @param centerX - x of the center of the halo, the center of the sun
+     * @param centerY - y of the center of the halo, the center of the sun
      */
-    public static GameObject create(GameObjectCollection gameObjects, int layer,
-                                    GameObject sun, Color color){
-        GameObject sunHalo = new GameObject(
-                Vector2.ZERO, new Vector2(SUN_HALO_SIZE, SUN_HALO_SIZE),
-                new OvalRenderable(color));
-        sunHalo.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
-        gameObjects.addGameObject(sunHalo, layer);
-        sunHalo.setTag(SUN_HALO_TAG);
-        //set sun halo following the sun
-        sunHalo.addComponent(deltaTime -> sunHalo.setCenter(sun.getCenter()));
-        return sunHalo;
-
+    static void draw(Graphics2D g, Color color, float centerX, float centerY) {
+        g.setColor(color);
+        g.fillOval(Math.round(centerX - SUN_HALO_SIZE/2f), Math.round(centerY - SUN_HALO_SIZE/2f),
+                SUN_HALO_SIZE, SUN_HALO_SIZE);
     }
 
 }
@@ -2,11 +2,8 @@ package pepse.world.trees;
 
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.collisions.GameObjectCollection;
-import danogl.components.ScheduledTask;
-import danogl.components.Transition;
-import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
+import pepse.util.ColorPalette;
 import pepse.util.ColorSupplier;
 import pepse.world.Block;
 
@@ -14,122 +11,96 @@ import java.awt.*;
 import java.util.Random;
 
 /**
- * Represents leaves on trees.
+ * Represents leaves on trees. A leaf holds no animation components of its own: its sway, narrowing,
+ * falling and fading are advanced by the LeafSystem that owns it.
  */
 public class Leaf extends GameObject{
 
     //constants
     public static final float LEAF_SIZE = Block.SIZE * 0.9f;
     public static final Color LEAF_COLOR = new Color(50, 200, 30);
-    private static final float FADEOUT_TIME = 40;
-    private static final float FALL_SPEED = 20;
-    private static final float DEAD_TIME = 5;
     private static final float MAX_LEAF_LIFE = 600;
-    private static final Float FALLING_SWAY_SPEED = 15f;
-    private static final float FALLING_SWAY_CYCLE_LENGTH = 4;
     public static final String LEAF_TAG = "leaf";
-    private static final int WAIT_PARAMETER = 10;
-    private static final int MIN_ANGLE = -30;
-    private static final int MAX_ANGLE = 30;
-    private static final float MIN_TIME_SWAY = 5f;
-    private static final int RANGE_TIME_SWAY = 6;
-    private static final float NARROW_PARAMETER = 0.8f;
-    private static final float MIN_TIME_NARROW = 5f;
-    private static final int RANGE_TIME_NARROW = 6;
     private static final int LEAF_COLOR_DELTA = 50;
+    private static final ColorPalette LEAF_PALETTE = ColorSupplier.palette(LEAF_COLOR, LEAF_COLOR_DELTA);
 
     //leaf variables
-    private static GameObjectCollection gameObjects;
-    private static int leafLayer;
-    private final Random rand;
-    private Transition<Float> horizontalTransition;
-    private final Vector2 topLeftCorner;
+    private final LeafSystem system;
+    private final int slot;
 
     /**
      * Create a new Leaf object
      * @param topLeftCorner of the leaf
-     * @param gameObjects - all objects in the game
-     * @param leavesLayer - leaf layer
-     * @param rand - random
+     * @param color of the leaf
+     * @param system - the system that animates the leaf
+     * @param slot - index of the leaf's state in the system
      */
-    public Leaf(Vector2 topLeftCorner, GameObjectCollection gameObjects,
-                int leavesLayer, Random rand) {
-        super(topLeftCorner, Vector2.ONES.mult(LEAF_SIZE),
-                new RectangleRenderable(ColorSupplier.approximateColor(LEAF_COLOR, LEAF_COLOR_DELTA)));
+    Leaf(Vector2 topLeftCorner, Color color, LeafSystem system, int slot) {
+        super(topLeftCorner, Vector2.ONES.mult(LEAF_SIZE), LEAF_PALETTE.renderableOf(color));
         physics().preventIntersectionsFromDirection(Vector2.ZERO);
         setTag(LEAF_TAG);
-        gameObjects.addGameObject(this, leavesLayer);
-        Leaf.gameObjects = gameObjects;
-        Leaf.leafLayer = leavesLayer;
-        this.rand = rand;
-        this.topLeftCorner = topLeftCorner;
-        //wait j/10 time as we were required in the exercise, then make leaves sway and narrow
-        float waitTime = getTopLeftCorner().y() % WAIT_PARAMETER;
-        new ScheduledTask(this, waitTime, false, () -> {
-            sway();
-            narrow();
-        });
-
-        // control leaf life-cycle
-        new ScheduledTask(this, MAX_LEAF_LIFE * rand.nextFloat(), false,
-                this::fall);
+        this.system = system;
+        this.slot = slot;
     }
 
     /**
-     * Handles collision of leaf with the first layer of the ground, make the leaf stop moving.
+     * @return index of the leaf's state in its system
      */
-    @Override
-    public void onCollisionEnter(GameObject other, Collision collision) {
-        super.onCollisionEnter(other, collision);
-        removeComponent(horizontalTransition); //remove the horizontal velocity
-        transform().setVelocity(Vector2.ZERO);
+    int getSlot() {
+        return slot;
     }
 
     /**
-     * Responsible for leaf swinging (when on tree).
+     * Puts the leaf back on its tree, as it was when it was created.
+     * @param x - top left corner x on the tree
+     * @param y - top left corner y on the tree
      */
-    private void sway() {
-        new Transition<Float>(this, this.renderer()::setRenderableAngle,
-                //choose random degree in range [-30 - 30]
-                MIN_ANGLE * rand.nextFloat(), MAX_ANGLE * rand.nextFloat(),
-                Transition.LINEAR_INTERPOLATOR_FLOAT, MIN_TIME_SWAY + rand.nextInt(RANGE_TIME_SWAY),
-                Transition.TransitionType.TRANSITION_BACK_AND_FORTH, null);
+    void reset(float x, float y) {
+        transform().setTopLeftCorner(x, y);
+        transform().setDimensions(LEAF_SIZE, LEAF_SIZE);
+        transform().setVelocity(0, 0);
+        renderer().setRenderableAngle(0);
+        renderer().setOpaqueness(1);
     }
 
     /**
-     * Responsible for leaf narrowing (when on tree).
+     * Changes the color of the leaf to a shared renderable of the leaf palette.
+     * @param color - new color, usually from randomColor
      */
-    private void narrow() {
-         new Transition<Vector2>(this, this::setDimensions,
-                //Change leaves width to be at a minimum 0.8 * SIZE_LEAF
-                Vector2.ONES.mult(LEAF_SIZE), Vector2.of(LEAF_SIZE * NARROW_PARAMETER, LEAF_SIZE),
-                Transition.LINEAR_INTERPOLATOR_VECTOR, MIN_TIME_NARROW + rand.nextInt(RANGE_TIME_NARROW),
-                Transition.TransitionType.TRANSITION_BACK_AND_FORTH, null);
+    void setColor(Color color) {
+        renderer().setRenderable(LEAF_PALETTE.renderableOf(color));
     }
 
+    /**
+     * @param rand - random
+     * @return a random leaf color from the leaf palette
+     */
+    static Color randomColor(Random rand) {
+        return LEAF_PALETTE.randomColor(rand);
+    }
 
     /**
-     * Responsible for leaf falling
+     * @return the palette all the leaf colors come from
      */
-    private void fall() {
-        this.renderer().fadeOut(FADEOUT_TIME, delayedRecreateLeaf());
-        this.transform().setVelocityY(FALL_SPEED); //response of the vertical velocity
-        //response of horizontal velocity (while falling)
-        horizontalTransition = new Transition<Float>(this, this.transform()::setVelocityX,
-                FALLING_SWAY_SPEED, -FALLING_SWAY_SPEED, Transition.CUBIC_INTERPOLATOR_FLOAT,
-                FALLING_SWAY_CYCLE_LENGTH, Transition.TransitionType.TRANSITION_BACK_AND_FORTH, null);
+    static ColorPalette palette() {
+        return LEAF_PALETTE;
+    }
 
+    /**
+     * @param rand - random
+     * @return a random time until a leaf falls
+     */
+    static float randomLifeTime(Random rand) {
+        return MAX_LEAF_LIFE * rand.nextFloat();
     }
 
     /**
-     * Responsible for delayed recreate leaf
-     * @return Runnable
+     * Handles collision of leaf with the first layer of the ground, make the leaf stop moving. Only called
+     * when the leaves land by collision, see LeafGroundContact.
      */
-    private Runnable delayedRecreateLeaf() {
-        // written out for readability (to avoid lambdas-within-lambdas)
-        return () -> new ScheduledTask(this, DEAD_TIME, false, () -> {
-            new Leaf(topLeftCorner, gameObjects, leafLayer, rand);
-            gameObjects.removeGameObject(this, leafLayer);
-        });
+    @Override
+    public void onCollisionEnter(GameObject other, Collision collision) {
+        super.onCollisionEnter(other, collision);
+        system.land(slot);
     }
 }
@@ -0,0 +1,11 @@
+package pepse.world.trees;
+
+/**
+ * How a falling leaf finds out that it reached the ground.
+ */
+public enum LeafGroundContact {
+    /** The leaf and ground layers collide, and a leaf lands when it collides with a block. */
+    COLLISION,
+    /** A leaf lands when its bottom reaches the surface of the heightmap, no collision is checked. */
+    HEIGHTMAP
+}
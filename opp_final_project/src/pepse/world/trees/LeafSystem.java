@@ -0,0 +1,535 @@
+package pepse.world.trees;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.util.Vector2;
+import pepse.metrics.LeafEvent;
+import pepse.util.NoiseFunction;
+import pepse.util.TimingWheel;
+import pepse.world.Block;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Simulates the life-cycle of all the leaves in the world: swaying and narrowing on the tree, falling,
+ * fading out and growing back. The state of every leaf lives in primitive arrays indexed by the leaf's
+ * slot, and all the leaves are advanced in a single loop per frame, instead of every leaf ticking its own
+ * Transition and ScheduledTask components. The loop only visits a dense list of the slots whose leaf is
+ * animated, so the free, dead and suspended slots cost nothing per frame.
+ * Leaf objects are never thrown away: a leaf that grows back is reset in place, and a removed leaf stays
+ * in its freed slot as a pooled object for the next leaf that is added.
+ * The waits of the life-cycle (before swaying, until falling and until growing back) are deadlines in a
+ * timing wheel, so a frame only handles the leaves whose wait is over.
+ * A falling leaf lands either when it collides with the ground, or, once a heightmap is set, when it
+ * reaches the surface of the heightmap, which spares the engine all the leaf and ground collision checks.
+ * Leaves far from the camera can be suspended: they are taken out of the game, their animation stops where
+ * it is and their waits are cancelled, so a hidden leaf costs nothing. A resumed leaf waits again for the
+ * time that was left, and continues exactly where it stopped.
+ */
+public class LeafSystem {
+
+    //constants
+    private static final float FADEOUT_TIME = 40;
+    private static final float FALL_SPEED = 20;
+    private static final float DEAD_TIME = 5;
+    private static final float FALLING_SWAY_SPEED = 15f;
+    private static final float FALLING_SWAY_CYCLE_LENGTH = 4;
+    private static final int WAIT_PARAMETER = 10;
+    private static final int MIN_ANGLE = -30;
+    private static final int MAX_ANGLE = 30;
+    private static final float MIN_TIME_SWAY = 5f;
+    private static final int RANGE_TIME_SWAY = 6;
+    private static final float NARROW_PARAMETER = 0.8f;
+    private static final float MIN_TIME_NARROW = 5f;
+    private static final int RANGE_TIME_NARROW = 6;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int GROWTH_FACTOR = 2;
+    private static final float OPAQUE = 1;
+    private static final int NOT_ACTIVE = -1;
+    private static final float NO_WAIT = -1;
+
+    //leaf states
+    private static final byte FREE = 0;
+    private static final byte ON_TREE = 1;
+    private static final byte FALLING = 2;
+    private static final byte LANDED = 3;
+    private static final byte DEAD = 4;
+
+    //timer events
+    private static final int SWAY = 0;
+    private static final int FALL = 1;
+    private static final int REGROW = 2;
+    private static final int EVENT_COUNT = 3;
+
+    private final GameObjectCollection gameObjects;
+    private final int leafLayer;
+    private final TimingWheel timers;
+    private final TimingWheel.Listener onTimer = this::onTimer;
+    private final Random rand = new Random();
+    private NoiseFunction groundHeightAt = null;
+
+    //per leaf state, indexed by slot
+    private Leaf[] leaves = new Leaf[INITIAL_CAPACITY];
+    private byte[] state = new byte[INITIAL_CAPACITY];
+    private float[] homeX = new float[INITIAL_CAPACITY];
+    private float[] homeY = new float[INITIAL_CAPACITY];
+    private boolean[] swaying = new boolean[INITIAL_CAPACITY];
+    private boolean[] suspended = new boolean[INITIAL_CAPACITY];
+    private long[] swayTimer = new long[INITIAL_CAPACITY];
+    private long[] lifeTimer = new long[INITIAL_CAPACITY];
+    //time that was left of the waits of a suspended leaf, or NO_WAIT
+    private float[] swayLeft = new float[INITIAL_CAPACITY];
+    private float[] lifeLeft = new float[INITIAL_CAPACITY];
+    private float[] angleFrom = new float[INITIAL_CAPACITY];
+    private float[] angleTo = new float[INITIAL_CAPACITY];
+    private float[] anglePeriod = new float[INITIAL_CAPACITY];
+    private float[] anglePhase = new float[INITIAL_CAPACITY];
+    private float[] widthPeriod = new float[INITIAL_CAPACITY];
+    private float[] widthPhase = new float[INITIAL_CAPACITY];
+    private float[] velocityPhase = new float[INITIAL_CAPACITY];
+    private float[] alpha = new float[INITIAL_CAPACITY];
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount = 0;
+    private int[] releasedSlots = new int[INITIAL_CAPACITY];
+    private int releasedCount = 0;
+    //slots of the animated leaves, and the index of each slot in that list or NOT_ACTIVE
+    private int[] activeSlots = new int[INITIAL_CAPACITY];
+    private int[] activeIndex = new int[INITIAL_CAPACITY];
+    private int activeCount = 0;
+    private int slotCount = 0;
+    private int poolSize = 0;
+    private long leavesCreated = 0;
+    private long leavesReused = 0;
+
+    /**
+     * constructor
+     * @param gameObjects - all objects in the game
+     * @param leafLayer - layer of the leaves
+     * @param timers - the timing wheel of the world, advanced by the game
+     */
+    public LeafSystem(GameObjectCollection gameObjects, int leafLayer, TimingWheel timers) {
+        this.gameObjects = gameObjects;
+        this.leafLayer = leafLayer;
+        this.timers = timers;
+    }
+
+    /**
+     * Makes falling leaves land on the surface of the ground heightmap, instead of on a collision with
+     * the ground. The leaf layer should then not collide with the ground layer.
+     * @param groundHeightAt - height of the ground at a given x coordinate, as used by the terrain
+     */
+    public void setGroundHeightmap(NoiseFunction groundHeightAt) {
+        this.groundHeightAt = groundHeightAt;
+    }
+
+    /**
+     * Creates a leaf on a tree and adds it to the game.
+     * @param topLeftCorner of the leaf on the tree
+     * @param color of the leaf
+     * @param lifeTime - time until the leaf falls
+     * @return the new leaf
+     */
+    public Leaf add(Vector2 topLeftCorner, Color color, float lifeTime) {
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot();
+        homeX[slot] = topLeftCorner.x();
+        homeY[slot] = topLeftCorner.y();
+        Leaf leaf = leaves[slot];
+        if (leaf == null) {
+            leaf = new Leaf(topLeftCorner, color, this, slot);
+            leaves[slot] = leaf;
+            leavesCreated++;
+        } else {
+            //take the leaf that was pooled in the free slot
+            poolSize--;
+            leavesReused++;
+            leaf.reset(homeX[slot], homeY[slot]);
+            leaf.setColor(color);
+        }
+        gameObjects.addGameObject(leaf, leafLayer);
+        start(slot, lifeTime);
+        return leaf;
+    }
+
+    /**
+     * Removes a leaf from the game and frees its slot. The leaf object stays in the slot's pool.
+     * The slot can only be reused from the next update, since the game's collection applies removals at
+     * the end of the frame and would ignore adding the same object again before that.
+     * @param leaf to remove
+     */
+    public void remove(Leaf leaf) {
+        int slot = leaf.getSlot();
+        if (leaves[slot] != leaf || state[slot] == FREE) return;
+        if (!suspended[slot]) {
+            gameObjects.removeGameObject(leaf, leafLayer);
+        }
+        suspended[slot] = false;
+        deactivate(slot);
+        timers.cancel(swayTimer[slot]);
+        timers.cancel(lifeTimer[slot]);
+        state[slot] = FREE;
+        releasedSlots[releasedCount++] = slot;
+        poolSize++;
+    }
+
+    /**
+     * Takes a leaf out of the game and stops its animation and its waits, until it is resumed.
+     * A leaf cannot be resumed in the same frame it was suspended, for the same reason as remove.
+     * @param leaf - a leaf of the system
+     */
+    public void suspend(Leaf leaf) {
+        int slot = leaf.getSlot();
+        if (leaves[slot] != leaf || state[slot] == FREE || suspended[slot]) return;
+        gameObjects.removeGameObject(leaf, leafLayer);
+        suspended[slot] = true;
+        deactivate(slot);
+        swayLeft[slot] = pause(swayTimer[slot]);
+        swayTimer[slot] = TimingWheel.NO_TIMER;
+        lifeLeft[slot] = pause(lifeTimer[slot]);
+        lifeTimer[slot] = TimingWheel.NO_TIMER;
+    }
+
+    /**
+     * Puts a suspended leaf back in the game, and continues its animation and its waits from where they
+     * stopped.
+     * @param leaf - a leaf of the system
+     */
+    public void resume(Leaf leaf) {
+        int slot = leaf.getSlot();
+        if (leaves[slot] != leaf || !suspended[slot]) return;
+        gameObjects.addGameObject(leaf, leafLayer);
+        suspended[slot] = false;
+        if (state[slot] != DEAD) {
+            activate(slot);
+        }
+        if (swayLeft[slot] != NO_WAIT) {
+            swayTimer[slot] = schedule(swayLeft[slot], slot, SWAY);
+        }
+        if (lifeLeft[slot] != NO_WAIT) {
+            //a dead leaf waits to grow back, a leaf on its tree waits to fall
+            lifeTimer[slot] = schedule(lifeLeft[slot], slot, state[slot] == DEAD ? REGROW : FALL);
+        }
+    }
+
+    /**
+     * @return layer of the leaves
+     */
+    public int getLeafLayer() {
+        return leafLayer;
+    }
+
+    /**
+     * @return number of leaves in the game
+     */
+    public int getLeafCount() {
+        return slotCount - freeCount - releasedCount;
+    }
+
+    /**
+     * @return number of leaves the update advances, the ones that are neither dead nor suspended
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * @return number of leaf objects waiting in the pool
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * @return number of leaf objects ever allocated
+     */
+    public long getLeavesCreated() {
+        return leavesCreated;
+    }
+
+    /**
+     * @return number of times a leaf object was reused, either from the pool or by growing back in place
+     */
+    public long getLeavesReused() {
+        return leavesReused;
+    }
+
+    /**
+     * @return fraction of the leaves that were served without allocating a new object
+     */
+    public float getReuseRate() {
+        long total = leavesCreated + leavesReused;
+        return total == 0 ? 0 : (float) leavesReused / total;
+    }
+
+    /**
+     * Advances every animated leaf. Called once per frame.
+     * @param deltaTime - time since the last frame
+     */
+    public void update(float deltaTime) {
+        //the leaves released last frame are out of the game by now
+        System.arraycopy(releasedSlots, 0, freeSlots, freeCount, releasedCount);
+        freeCount += releasedCount;
+        releasedCount = 0;
+
+        //backwards, so a leaf that dies and leaves the list only moves a leaf that was already advanced
+        for (int active = activeCount - 1; active >= 0; active--) {
+            int i = activeSlots[active];
+            byte leafState = state[i];
+            Leaf leaf = leaves[i];
+
+            if (swaying[i]) {
+                anglePhase[i] = advance(anglePhase[i], anglePeriod[i], deltaTime);
+                widthPhase[i] = advance(widthPhase[i], widthPeriod[i], deltaTime);
+                leaf.renderer().setRenderableAngle(
+                        lerp(angleFrom[i], angleTo[i], backAndForth(anglePhase[i], anglePeriod[i])));
+                leaf.transform().setDimensionsX(
+                        lerp(Leaf.LEAF_SIZE, Leaf.LEAF_SIZE * NARROW_PARAMETER,
+                                backAndForth(widthPhase[i], widthPeriod[i])));
+            }
+
+            switch (leafState) {
+                case FALLING:
+                    //horizontal velocity sways back and forth while falling
+                    velocityPhase[i] = advance(velocityPhase[i], FALLING_SWAY_CYCLE_LENGTH, deltaTime);
+                    leaf.transform().setVelocityX(cubic(FALLING_SWAY_SPEED, -FALLING_SWAY_SPEED,
+                            backAndForth(velocityPhase[i], FALLING_SWAY_CYCLE_LENGTH)));
+                    if (groundHeightAt != null && reachedGround(leaf)) {
+                        land(i);
+                    }
+                    fade(i, deltaTime);
+                    break;
+                case LANDED:
+                    fade(i, deltaTime);
+                    break;
+                default:
+            }
+        }
+    }
+
+    /**
+     * Handles a leaf whose wait is over.
+     * @param payload - slot of the leaf and the event, as encoded by schedule
+     */
+    private void onTimer(int payload) {
+        int slot = payload / EVENT_COUNT;
+        switch (payload % EVENT_COUNT) {
+            case SWAY:
+                swayTimer[slot] = TimingWheel.NO_TIMER;
+                swaying[slot] = true;
+                break;
+            case FALL:
+                lifeTimer[slot] = TimingWheel.NO_TIMER;
+                fall(slot);
+                break;
+            case REGROW:
+                lifeTimer[slot] = TimingWheel.NO_TIMER;
+                regrow(slot);
+                break;
+            default:
+        }
+    }
+
+    /**
+     * @return handle of a new timer for an event of a leaf
+     */
+    private long schedule(float delay, int slot, int event) {
+        return timers.schedule(delay, onTimer, slot * EVENT_COUNT + event);
+    }
+
+    /**
+     * Cancels a wait of a leaf that is suspended.
+     * @param handle - of the wait's timer, or NO_TIMER
+     * @return time that was left of the wait, or NO_WAIT if there was none
+     */
+    private float pause(long handle) {
+        float left = timers.remaining(handle);
+        return timers.cancel(handle) ? left : NO_WAIT;
+    }
+
+    /**
+     * Stops a falling leaf that reached the ground.
+     * @param slot of the leaf
+     */
+    void land(int slot) {
+        if (state[slot] == FALLING) {
+            state[slot] = LANDED; //remove the horizontal velocity
+        }
+        if (state[slot] != DEAD) {
+            leaves[slot].transform().setVelocity(0, 0);
+        }
+    }
+
+    /**
+     * @param leaf - a falling leaf
+     * @return true if the bottom of the leaf reached the top of the surface block of a column it is over
+     */
+    private boolean reachedGround(Leaf leaf) {
+        Vector2 topLeftCorner = leaf.getTopLeftCorner();
+        float bottom = topLeftCorner.y() + leaf.getDimensions().y();
+        return bottom >= surfaceAt(topLeftCorner.x())
+                || bottom >= surfaceAt(topLeftCorner.x() + leaf.getDimensions().x());
+    }
+
+    /**
+     * @param x coordinate
+     * @return top of the surface block of the column that contains x, as the terrain places it
+     */
+    private float surfaceAt(float x) {
+        float columnX = (float) Math.floor(x / Block.SIZE) * Block.SIZE;
+        return (float) Math.floor(groundHeightAt.valueAt(columnX) / Block.SIZE) * Block.SIZE;
+    }
+
+    /**
+     * Resets the state of a slot for a leaf that just grew on its tree.
+     * @param slot of the leaf
+     * @param lifeTime - time until the leaf falls
+     */
+    private void start(int slot, float lifeTime) {
+        state[slot] = ON_TREE;
+        //wait j/10 time as we were required in the exercise, then make leaves sway and narrow
+        float swayDelay = homeY[slot] % WAIT_PARAMETER;
+        swaying[slot] = swayDelay <= 0;
+        swayTimer[slot] = swaying[slot] ? TimingWheel.NO_TIMER : schedule(swayDelay, slot, SWAY);
+        lifeTimer[slot] = schedule(lifeTime, slot, FALL);
+        //choose random degree in range [-30 - 30]
+        angleFrom[slot] = MIN_ANGLE * rand.nextFloat();
+        angleTo[slot] = MAX_ANGLE * rand.nextFloat();
+        anglePeriod[slot] = MIN_TIME_SWAY + rand.nextInt(RANGE_TIME_SWAY);
+        anglePhase[slot] = 0;
+        //change leaves width to be at a minimum 0.8 * SIZE_LEAF
+        widthPeriod[slot] = MIN_TIME_NARROW + rand.nextInt(RANGE_TIME_NARROW);
+        widthPhase[slot] = 0;
+        velocityPhase[slot] = 0;
+        alpha[slot] = OPAQUE;
+        if (!suspended[slot]) {
+            activate(slot);
+        }
+    }
+
+    /**
+     * Detaches a leaf from its tree.
+     * @param slot of the leaf
+     */
+    private void fall(int slot) {
+        LeafEvent.record(LeafEvent.FALL, slot, homeX[slot], homeY[slot]);
+        state[slot] = FALLING;
+        leaves[slot].transform().setVelocityY(FALL_SPEED); //response of the vertical velocity
+    }
+
+    /**
+     * Fades a fallen leaf out, and starts its dead time once it is invisible.
+     * @param slot of the leaf
+     * @param deltaTime - time since the last frame
+     */
+    private void fade(int slot, float deltaTime) {
+        alpha[slot] = Math.max(0, alpha[slot] - deltaTime / FADEOUT_TIME);
+        leaves[slot].renderer().setOpaqueness(alpha[slot]);
+        if (alpha[slot] == 0) {
+            state[slot] = DEAD;
+            deactivate(slot);
+            lifeTimer[slot] = schedule(DEAD_TIME, slot, REGROW);
+        }
+    }
+
+    /**
+     * Grows a dead leaf back in its place on the tree, reusing the same object.
+     * @param slot of the leaf
+     */
+    private void regrow(int slot) {
+        LeafEvent.record(LeafEvent.REGROW, slot, homeX[slot], homeY[slot]);
+        leaves[slot].reset(homeX[slot], homeY[slot]);
+        leavesReused++;
+        start(slot, Leaf.randomLifeTime(rand));
+    }
+
+    /**
+     * Adds a slot to the list of animated leaves, if it is not in it already.
+     * @param slot of the leaf
+     */
+    private void activate(int slot) {
+        if (activeIndex[slot] != NOT_ACTIVE) return;
+        activeIndex[slot] = activeCount;
+        activeSlots[activeCount++] = slot;
+    }
+
+    /**
+     * Takes a slot out of the list of animated leaves, moving the last slot of the list into its place.
+     * @param slot of the leaf
+     */
+    private void deactivate(int slot) {
+        int index = activeIndex[slot];
+        if (index == NOT_ACTIVE) return;
+        int last = activeSlots[--activeCount];
+        activeSlots[index] = last;
+        activeIndex[last] = index;
+        activeIndex[slot] = NOT_ACTIVE;
+    }
+
+    /**
+     * @return a new slot at the end of the arrays, growing them if needed
+     */
+    private int nextSlot() {
+        if (slotCount == leaves.length) {
+            int capacity = leaves.length * GROWTH_FACTOR;
+            leaves = Arrays.copyOf(leaves, capacity);
+            state = Arrays.copyOf(state, capacity);
+            homeX = Arrays.copyOf(homeX, capacity);
+            homeY = Arrays.copyOf(homeY, capacity);
+            swaying = Arrays.copyOf(swaying, capacity);
+            suspended = Arrays.copyOf(suspended, capacity);
+            swayTimer = Arrays.copyOf(swayTimer, capacity);
+            lifeTimer = Arrays.copyOf(lifeTimer, capacity);
+            swayLeft = Arrays.copyOf(swayLeft, capacity);
+            lifeLeft = Arrays.copyOf(lifeLeft, capacity);
+            angleFrom = Arrays.copyOf(angleFrom, capacity);
+            angleTo = Arrays.copyOf(angleTo, capacity);
+            anglePeriod = Arrays.copyOf(anglePeriod, capacity);
+            anglePhase = Arrays.copyOf(anglePhase, capacity);
+            widthPeriod = Arrays.copyOf(widthPeriod, capacity);
+            widthPhase = Arrays.copyOf(widthPhase, capacity);
+            velocityPhase = Arrays.copyOf(velocityPhase, capacity);
+            alpha = Arrays.copyOf(alpha, capacity);
+            freeSlots = Arrays.copyOf(freeSlots, capacity);
+            releasedSlots = Arrays.copyOf(releasedSlots, capacity);
+            activeSlots = Arrays.copyOf(activeSlots, capacity);
+            activeIndex = Arrays.copyOf(activeIndex, capacity);
+        }
+        activeIndex[slotCount] = NOT_ACTIVE;
+        return slotCount++;
+    }
+
+    /**
+     * Advances the phase of a back and forth cycle, which lasts two periods.
+     * @param phase - current time in the cycle
+     * @param period - time to go one way
+     * @param deltaTime - time since the last frame
+     * @return new time in the cycle
+     */
+    private static float advance(float phase, float period, float deltaTime) {
+        phase += deltaTime;
+        return phase >= 2 * period ? phase % (2 * period) : phase;
+    }
+
+    /**
+     * @param phase - time in a back and forth cycle
+     * @param period - time to go one way
+     * @return progress in [0, 1], going up in the first period and down in the second
+     */
+    private static float backAndForth(float phase, float period) {
+        return phase < period ? phase / period : 2 - phase / period;
+    }
+
+    /**
+     * @return linear interpolation between from and to
+     */
+    private static float lerp(float from, float to, float t) {
+        return from + (to - from) * t;
+    }
+
+    /**
+     * @return cubic interpolation between from and to, the same curve as Transition's cubic interpolator
+     */
+    private static float cubic(float from, float to, float t) {
+        return (2 * from - 2 * to) * t * t * t + (3 * to - 3 * from) * t * t + from;
+    }
+}
@@ -3,15 +3,20 @@ package pepse.world.trees;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.components.GameObjectPhysics;
-import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
+import pepse.util.ColorPalette;
 import pepse.util.ColorSupplier;
+import pepse.util.NoiseFunction;
 import pepse.world.Block;
 
 import java.awt.*;
-import java.util.Objects;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
-import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
 
 /**
  * Handles creation of trees in world.
@@ -25,17 +30,17 @@ public class Tree {
     private static final int DESIRED_RESULT = 0;
     private static final int BOUND_TREE_HEIGHT = 7;
     private static final int TREE_COLOR_DELTA = 20;
+    private static final ColorPalette TREE_PALETTE = ColorSupplier.palette(TREE_COLOR, TREE_COLOR_DELTA);
     private static final int MIN_ROWS_LEAVES = 5;
     private static final int MIN_COLS_LEAVES = 5;
     private static final int DOUBLE_RES = 2;
     private static final int LEAF_ROWS_BOUND = 3;
     public static final int LEAF_COLS_BOUND = 3;
     private final GameObjectCollection gameObjects;
-    private final Function<Float, Float> groundHeightAt;
+    private final NoiseFunction groundHeightAt;
     private final int treeLayer;
-    private final int leavesLayer;
+    private final LeafSystem leaves;
     private final int seed;
-    private Random rand = new Random();
 
 
     /**
@@ -43,87 +48,228 @@ public class Tree {
      * @param gameObjects GameObjectCollection to which to add trees
      * @param groundHeightAt callback to know where ground is at given x coordinate
      * @param treeLayer Layer in which to place trees
-     * @param leavesLayer Layer in which to place leaves
+     * @param leaves the system that creates and animates the leaves
      * @param seed for Randomizer
      */
-    public Tree(GameObjectCollection gameObjects, Function<Float, Float> groundHeightAt,
-                int treeLayer, int leavesLayer, int seed){
+    public Tree(GameObjectCollection gameObjects, NoiseFunction groundHeightAt,
+                int treeLayer, LeafSystem leaves, int seed){
         this.gameObjects = gameObjects;
         this.groundHeightAt = groundHeightAt;
         this.treeLayer = treeLayer;
-        this.leavesLayer = leavesLayer;
+        this.leaves = leaves;
         this.seed = seed;
     }
 
 
 
     /**
-     * create trees in range
+     * create trees in range [minX, maxX)
      * @param minX - for start to create trees
-     * @param maxX - for end to create trees
+     * @param maxX - for end to create trees (exclusive)
      */
     public void createInRange(int minX, int maxX){
+        materialize(planInRange(minX, maxX), (object, layer) -> { });
+    }
+
+    /**
+     * Computes the trees of the range [minX, maxX) without creating any GameObject. Every column depends
+     * only on its x and the seed, so ranges can be planned on several threads at once, in any order, and
+     * always give the same trees. Safe to call from a worker thread.
+     * @param minX - for start to plan trees
+     * @param maxX - for end to plan trees (exclusive)
+     * @return the plans of the trees in the range, ordered by x
+     */
+    public List<TreePlan> planInRange(int minX, int maxX){
         //normalize X to be integer number that is divided by Block.SIZE
-        int normalizeMinX = (minX/Block.SIZE) * Block.SIZE - Block.SIZE;
-        int normalizeMaxX = (maxX/Block.SIZE) * Block.SIZE + Block.SIZE;
-
-        for (int x = normalizeMinX; x <= normalizeMaxX; x += Block.SIZE){
-            // Reinitialize the random generator using x, so that if the tree is ever
-            // removed and recreated the results will be the same
-            rand.setSeed(x + seed);
-
-            // Create a tree with probability of 0.1 as requested
-            if((rand.nextInt(CHANGE_TO_CREATE))  == DESIRED_RESULT){
-                // get groundHeightAt(x), normalize to number that is divisible by Block.SIZE,
-                // and add the desired extra height to the tree.
-                int extraHeight = rand.nextInt(BOUND_TREE_HEIGHT) * Block.SIZE;
-                float y = (float) Math.floor(groundHeightAt.apply((float) x) / Block.SIZE) * Block.SIZE -
-                        HEIGHT_TREE_FROM_TERRAIN - extraHeight;
-
-                createTree(x, y, extraHeight);
+        int normalizeMinX = Math.floorDiv(minX, Block.SIZE) * Block.SIZE;
+        int columns = columnCount(minX, maxX);
+        //local generators, so that planning never touches state shared with the game thread
+        Random columnRand = new Random();
+        Random colorRand = new Random();
+        List<TreePlan> plans = new ArrayList<>();
+        for (int i = 0; i < columns; i++){
+            TreePlan plan = planColumn(normalizeMinX + i * Block.SIZE, columnRand, colorRand);
+            if (plan != null) {
+                plans.add(plan);
             }
         }
+        return plans;
+    }
 
+    /**
+     * Creates the trunks and leaves of the given plans. Must be called from the game thread.
+     * @param plans - plans created by planInRange
+     * @param registry - receives every created object with its layer
+     */
+    public void materialize(List<TreePlan> plans, ObjIntConsumer<GameObject> registry){
+        for (TreePlan plan : plans) {
+            createTree(plan, registry);
+        }
     }
 
     /**
-     * Create a single tree
+     * Creates the trunk and leaves of a single plan. Must be called from the game thread.
+     * @param plan - a plan created by planInRange
+     * @param registry - receives every created object with its layer
+     */
+    public void materialize(TreePlan plan, ObjIntConsumer<GameObject> registry){
+        createTree(plan, registry);
+    }
+
+    /**
+     * @param minX - for start to plan trees
+     * @param maxX - for end to plan trees (exclusive)
+     * @return number of columns of the range [minX, maxX)
+     */
+    private static int columnCount(int minX, int maxX) {
+        int normalizeMinX = Math.floorDiv(minX, Block.SIZE) * Block.SIZE;
+        return Math.max(0, (maxX - normalizeMinX + Block.SIZE - 1) / Block.SIZE);
+    }
+
+    /**
+     * Plan the tree of a single column, if it has one
+     * @param x of the column
+     * @param columnRand - generator of the column, reseeded here
+     * @param colorRand - generator of the colors of the column, reseeded here
+     * @return plan of the tree, or null if the column has no tree
+     */
+    private TreePlan planColumn(int x, Random columnRand, Random colorRand) {
+        // Reinitialize the random generator using x, so that if the tree is ever
+        // removed and recreated the results will be the same
+        columnRand.setSeed(x + seed);
+
+        // Create a tree with probability of 0.1 as requested
+        if((columnRand.nextInt(CHANGE_TO_CREATE)) != DESIRED_RESULT) return null;
+        // get groundHeightAt(x), normalize to number that is divisible by Block.SIZE,
+        // and add the desired extra height to the tree.
+        int extraHeight = columnRand.nextInt(BOUND_TREE_HEIGHT) * Block.SIZE;
+        float y = (float) Math.floor(groundHeightAt.valueAt(x) / Block.SIZE) * Block.SIZE -
+                HEIGHT_TREE_FROM_TERRAIN - extraHeight;
+        //the colors come from a generator of their own, so the column's sequence stays as it always was
+        colorRand.setSeed(~((long) x + seed));
+        return planTree(x, y, extraHeight, columnRand, colorRand);
+    }
+
+    /**
+     * Plan a single tree
      * @param x top left corner x
      * @param y top left corner y
      * @param extraHeight - height
+     * @param rand - generator already seeded for the column of the tree
+     * @param colorRand - generator of the colors, already seeded for the column of the tree
+     * @return plan of the tree
      */
-    private void createTree(int x, float y, int extraHeight) {
-        GameObject tree = new GameObject(Vector2.of(x, y),
-                Vector2.of(Block.SIZE, HEIGHT_TREE_FROM_TERRAIN + extraHeight),
-                new RectangleRenderable(ColorSupplier.approximateColor(TREE_COLOR, TREE_COLOR_DELTA)));
+    private TreePlan planTree(int x, float y, int extraHeight, Random rand, Random colorRand) {
+        Color color = TREE_PALETTE.randomColor(colorRand);
         // randomly (coin-flip) choose that tree blocks avatar
-        if (rand.nextBoolean()){
-            tree.physics().preventIntersectionsFromDirection(Vector2.ZERO);
-            tree.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
-        }
-        gameObjects.addGameObject(tree, treeLayer);
-        tree.setTag(TREE_TAG);
+        boolean collidable = rand.nextBoolean();
 
         int rows = MIN_ROWS_LEAVES + DOUBLE_RES * rand.nextInt(LEAF_ROWS_BOUND);
         int cols = MIN_COLS_LEAVES + DOUBLE_RES * rand.nextInt(LEAF_COLS_BOUND);
         //set the first leaf top left corner
         int startX = x - (int)((rows - 1) / DOUBLE_RES  * Leaf.LEAF_SIZE);
         int startY = (int)(y - ((cols - 1) / DOUBLE_RES  * Leaf.LEAF_SIZE));
-        createLeaves(startX, startY, rows, cols);
+        Color[] leafColors = new Color[rows * cols];
+        float[] leafLifeTimes = new float[rows * cols];
+        for (int i = 0; i < rows * cols; i++) {
+            leafColors[i] = Leaf.randomColor(colorRand);
+            leafLifeTimes[i] = Leaf.randomLifeTime(rand);
+        }
+        return new TreePlan(x, y, extraHeight, color, collidable, startX, startY, rows, cols,
+                leafColors, leafLifeTimes);
+    }
+
+    /**
+     * Writes plans in the snapshot format: the number of trees, then every trunk and its grid of leaves.
+     * Colors are written as palette indices, the trunk height and y in whole blocks.
+     * @param plans - plans created by planInRange
+     * @param out - receives the plans
+     * @throws IOException if out fails
+     */
+    public void writePlans(List<TreePlan> plans, DataOutput out) throws IOException {
+        ColorPalette leafPalette = Leaf.palette();
+        out.writeShort(plans.size());
+        for (TreePlan plan : plans) {
+            out.writeInt(plan.getX());
+            out.writeShort(Math.round(plan.getY() / Block.SIZE));
+            out.writeByte(plan.getExtraHeight() / Block.SIZE);
+            out.writeByte(TREE_PALETTE.indexOf(plan.getColor()));
+            out.writeBoolean(plan.isCollidable());
+            out.writeInt(plan.getLeavesStartX());
+            out.writeInt(plan.getLeavesStartY());
+            out.writeByte(plan.getRows());
+            out.writeByte(plan.getCols());
+            for (int leaf = 0; leaf < plan.getRows() * plan.getCols(); leaf++) {
+                out.writeByte(leafPalette.indexOf(plan.getLeafColor(leaf)));
+                out.writeFloat(plan.getLeafLifeTime(leaf));
+            }
+        }
+    }
+
+    /**
+     * Reads plans written by writePlans. Safe to call from a worker thread.
+     * @param in - positioned at the plans, left after them
+     * @return the plans, ordered by x
+     */
+    public List<TreePlan> readPlans(ByteBuffer in) {
+        ColorPalette leafPalette = Leaf.palette();
+        int count = in.getShort();
+        List<TreePlan> plans = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int x = in.getInt();
+            float y = in.getShort() * Block.SIZE;
+            int extraHeight = in.get() * Block.SIZE;
+            Color color = TREE_PALETTE.colorAt(Byte.toUnsignedInt(in.get()));
+            boolean collidable = in.get() != 0;
+            int startX = in.getInt();
+            int startY = in.getInt();
+            int rows = in.get();
+            int cols = in.get();
+            Color[] leafColors = new Color[rows * cols];
+            float[] leafLifeTimes = new float[rows * cols];
+            for (int leaf = 0; leaf < rows * cols; leaf++) {
+                leafColors[leaf] = leafPalette.colorAt(Byte.toUnsignedInt(in.get()));
+                leafLifeTimes[leaf] = in.getFloat();
+            }
+            plans.add(new TreePlan(x, y, extraHeight, color, collidable, startX, startY, rows, cols,
+                    leafColors, leafLifeTimes));
+        }
+        return plans;
+    }
+
+    /**
+     * Create a single tree
+     * @param plan - plan of the tree
+     * @param registry - receives every created object with its layer
+     */
+    private void createTree(TreePlan plan, ObjIntConsumer<GameObject> registry) {
+        GameObject tree = new GameObject(Vector2.of(plan.getX(), plan.getY()),
+                Vector2.of(Block.SIZE, HEIGHT_TREE_FROM_TERRAIN + plan.getExtraHeight()),
+                TREE_PALETTE.renderableOf(plan.getColor()));
+        if (plan.isCollidable()){
+            tree.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+            tree.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+        }
+        gameObjects.addGameObject(tree, treeLayer);
+        tree.setTag(TREE_TAG);
+        registry.accept(tree, treeLayer);
+
+        createLeaves(plan, registry);
     }
 
     /**
-     * Creates leaves at the given coordinates of the given size.
-     * @param startX x coordinate of top left corner of block of leaves
-     * @param startY y coordinate of the same
-     * @param rows Number of rows of leaves
-     * @param cols Number of columns of leaves
+     * Creates the leaves of a planned tree.
+     * @param plan - plan of the tree
+     * @param registry - receives every created leaf with its layer
      */
-    private void createLeaves(int startX, int startY, int rows, int cols){
-        for(float row = 0, x = startX; row < rows; row++, x += Leaf.LEAF_SIZE){
-            for (float col = 0, y = startY; col < cols; col++, y += Leaf.LEAF_SIZE){
+    private void createLeaves(TreePlan plan, ObjIntConsumer<GameObject> registry){
+        int leaf = 0;
+        for(float row = 0, x = plan.getLeavesStartX(); row < plan.getRows(); row++, x += Leaf.LEAF_SIZE){
+            for (float col = 0, y = plan.getLeavesStartY(); col < plan.getCols(); col++, y += Leaf.LEAF_SIZE){
                 //create new game object
-                new Leaf(Vector2.of(x, y), gameObjects, leavesLayer, rand);
+                registry.accept(leaves.add(Vector2.of(x, y), plan.getLeafColor(leaf), plan.getLeafLifeTime(leaf)),
+                        leaves.getLeafLayer());
+                leaf++;
             }
         }
     }
@@ -0,0 +1,130 @@
+package pepse.world.trees;
+
+import java.awt.*;
+
+/**
+ * The computed layout of a single tree and its leaves.
+ * Holds no GameObjects, so it can be built off the game thread and materialized later.
+ */
+public class TreePlan {
+    private final int x;
+    private final float y;
+    private final int extraHeight;
+    private final Color color;
+    private final boolean collidable;
+    private final int leavesStartX;
+    private final int leavesStartY;
+    private final int rows;
+    private final int cols;
+    private final Color[] leafColors;
+    private final float[] leafLifeTimes;
+
+    /**
+     * constructor
+     * @param x - top left corner x of the trunk
+     * @param y - top left corner y of the trunk
+     * @param extraHeight - height of the trunk above the minimal tree height
+     * @param color - trunk color
+     * @param collidable - whether the trunk blocks the avatar
+     * @param leavesStartX - x coordinate of the top left leaf
+     * @param leavesStartY - y coordinate of the top left leaf
+     * @param rows - number of rows of leaves
+     * @param cols - number of columns of leaves
+     * @param leafColors - color of every leaf, row after row
+     * @param leafLifeTimes - time until every leaf falls, row after row
+     */
+    public TreePlan(int x, float y, int extraHeight, Color color, boolean collidable,
+                    int leavesStartX, int leavesStartY, int rows, int cols,
+                    Color[] leafColors, float[] leafLifeTimes) {
+        this.x = x;
+        this.y = y;
+        this.extraHeight = extraHeight;
+        this.color = color;
+        this.collidable = collidable;
+        this.leavesStartX = leavesStartX;
+        this.leavesStartY = leavesStartY;
+        this.rows = rows;
+        this.cols = cols;
+        this.leafColors = leafColors;
+        this.leafLifeTimes = leafLifeTimes;
+    }
+
+    /**
+     * @return top left corner x of the trunk
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @return top left corner y of the trunk
+     */
+    public float getY() {
+        return y;
+    }
+
+    /**
+     * @return height of the trunk above the minimal tree height
+     */
+    public int getExtraHeight() {
+        return extraHeight;
+    }
+
+    /**
+     * @return trunk color
+     */
+    public Color getColor() {
+        return color;
+    }
+
+    /**
+     * @return whether the trunk blocks the avatar
+     */
+    public boolean isCollidable() {
+        return collidable;
+    }
+
+    /**
+     * @return x coordinate of the top left leaf
+     */
+    public int getLeavesStartX() {
+        return leavesStartX;
+    }
+
+    /**
+     * @return y coordinate of the top left leaf
+     */
+    public int getLeavesStartY() {
+        return leavesStartY;
+    }
+
+    /**
+     * @return number of rows of leaves
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return number of columns of leaves
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * @param leaf index of the leaf, row after row
+     * @return color of the leaf
+     */
+    public Color getLeafColor(int leaf) {
+        return leafColors[leaf];
+    }
+
+    /**
+     * @param leaf index of the leaf, row after row
+     * @return time until the leaf falls
+     */
+    public float getLeafLifeTime(int leaf) {
+        return leafLifeTimes[leaf];
+    }
+}